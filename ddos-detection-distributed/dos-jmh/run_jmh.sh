@@ -0,0 +1,26 @@
+#!/bin/bash
+
+# JMH Benchmark Runner
+# Installs the ddos module, builds the benchmark jar and runs it.
+# Extra arguments go to JMH, e.g.:
+#   ./run_jmh.sh ParseBenchmark -p sources=1000
+#   ./run_jmh.sh DetectionTick -prof stack
+# The end-to-end measurements (servers, load, pipelines) are plain mains in
+# org.example.bench on the same jar, e.g.:
+#   java -cp target/benchmarks.jar org.example.bench.CaptureBenchmark
+
+echo "=== JMH Benchmark Runner ==="
+echo
+
+echo "Building..."
+(cd ../dos && mvn -q install -DskipTests) && mvn -q package
+
+if [ $? -ne 0 ]; then
+    echo "❌ Build failed!"
+    exit 1
+fi
+
+echo "✅ Build successful!"
+echo
+
+java -jar target/benchmarks.jar "$@"
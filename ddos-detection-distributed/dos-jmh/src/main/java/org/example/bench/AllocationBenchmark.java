@@ -0,0 +1,68 @@
+package org.example.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.example.core.SharedData;
+import org.example.core.Thresholds;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * Bytes allocated per request on each handler path, measured with the
+ * per-thread allocation counter. The cost of building the StubHttpExchange
+ * itself is measured separately and subtracted.
+ *   java -cp target/benchmarks.jar org.example.bench.AllocationBenchmark [requests]
+ */
+public class AllocationBenchmark {
+    // The handler's index path before responses were pre-encoded, kept for comparison
+    private static final HttpHandler LEGACY_INDEX = exchange -> {
+        String resp = "<html><body><h1>Welcome to DoS Test Server</h1></body></html>";
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        byte[] bs = resp.getBytes();
+        exchange.sendResponseHeaders(200, bs.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bs);
+        }
+    };
+
+    private static final com.sun.management.ThreadMXBean MX =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int requests = Bench.intArg(args, 0, 200_000);
+
+        SharedData.blockedIPs.add("10.0.0.3");
+        SharedData.thresholds.set(Thresholds.DEFAULTS.with(Map.of("rate", "1", "burst", "1")));
+
+        System.out.println("=== HANDLER ALLOCATION BENCHMARK ===");
+        System.out.println("Requests per path: " + requests);
+
+        double stub = measure(requests, "/index.html", "10.0.0.1", null);
+        Bench.Table table = new Bench.Table("%-22s | %-18.1f", "Path", "Bytes/request");
+        row(table, "Legacy index (200)", measure(requests, "/index.html", "10.0.0.9", LEGACY_INDEX) - stub);
+        row(table, "Index (200)",        measure(requests, "/index.html", "10.0.0.1", SharedData.handler) - stub);
+        row(table, "Redirect (302)",     measure(requests, "/",           "10.0.0.2", SharedData.handler) - stub);
+        row(table, "Forbidden (403)",    measure(requests, "/index.html", "10.0.0.3", SharedData.handler) - stub);
+        SharedData.thresholds.updateAndGet(t -> t.with("rateLimit", "true"));
+        row(table, "Rate-limited (429)", measure(requests, "/index.html", "10.0.0.4", SharedData.handler) - stub);
+        System.out.printf("%nStub exchange alone: %.1f bytes/request (subtracted above)%n", stub);
+    }
+
+    private static void row(Bench.Table table, String name, double bytes) {
+        table.row(name, Math.max(0, bytes));
+    }
+
+    private static double measure(int requests, String path, String ip, HttpHandler handler) throws Exception {
+        for (int i = 0; i < requests / 10; i++) invoke(path, ip, handler);   // warmup / JIT
+        long before = MX.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < requests; i++) invoke(path, ip, handler);
+        return (MX.getCurrentThreadAllocatedBytes() - before) / (double) requests;
+    }
+
+    private static void invoke(String path, String ip, HttpHandler handler) throws Exception {
+        HttpExchange ex = new StubHttpExchange(path, ip);
+        if (handler != null) handler.handle(ex);
+    }
+}
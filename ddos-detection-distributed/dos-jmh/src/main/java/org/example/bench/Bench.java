@@ -0,0 +1,59 @@
+package org.example.bench;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Shared plumbing for the benchmark mains: positional arguments with defaults
+ * and the pipe-separated result tables they print.
+ */
+public final class Bench {
+    // A printf conversion with its width, e.g. %-12.2f -> %-12s for the header
+    private static final Pattern CONVERSION = Pattern.compile("%(-?\\d*)(?:\\.\\d+)?[a-zA-Z]");
+
+    private Bench() {}
+
+    /** @return {@code args[i]} as an int, or {@code def} when it was not given. */
+    public static int intArg(String[] args, int i, int def) {
+        return args.length > i ? Integer.parseInt(args[i].trim()) : def;
+    }
+
+    /** @return {@code args[i]} as a double, or {@code def} when it was not given. */
+    public static double doubleArg(String[] args, int i, double def) {
+        return args.length > i ? Double.parseDouble(args[i].trim()) : def;
+    }
+
+    /** @return The comma-separated values of {@code args[i]} (or {@code def}), trimmed. */
+    public static String[] listArg(String[] args, int i, String def) {
+        return Arrays.stream((args.length > i ? args[i] : def).split(","))
+                .map(String::trim)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * A result table. Construction prints a blank line, the header and a rule;
+     * each row is one printf conversion per column, separated by " | ", with
+     * the headers padded to the same widths.
+     */
+    public static final class Table {
+        private final PrintStream out;
+        private final String      rowFormat;
+
+        public Table(String rowFormat, String... headers) {
+            this(System.out, rowFormat, headers);
+        }
+
+        public Table(PrintStream out, String rowFormat, String... headers) {
+            this.out       = out;
+            this.rowFormat = rowFormat;
+            String header = String.format(CONVERSION.matcher(rowFormat).replaceAll("%$1s"), (Object[]) headers);
+            out.printf("%n%s%n", header);
+            out.println("-".repeat(header.length()));
+        }
+
+        public void row(Object... values) {
+            out.println(String.format(rowFormat, values));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.bench;
+
+import org.example.core.Blocklist;
+import org.example.util.PerformanceTimer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times a bulk load of exact IPs plus CIDR ranges into the snapshot blocklist,
+ * then compares lookup throughput against a plain concurrent set.
+ *   java -cp target/benchmarks.jar org.example.bench.BlocklistBenchmark [entries] [cidrs] [lookups]
+ */
+public class BlocklistBenchmark {
+    public static void main(String[] args) {
+        int entries = Bench.intArg(args, 0, 100_000);
+        int cidrs   = Bench.intArg(args, 1, 1_000);
+        int lookups = Bench.intArg(args, 2, 5_000_000);
+
+        List<String> ips = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) ips.add(ip(0x0A000000 + i * 7));
+        List<String> ranges = new ArrayList<>(cidrs);
+        for (int i = 0; i < cidrs; i++) ranges.add(ip(0xC0000000 + (i << 8)) + "/24");
+        String[] probes = new String[4096];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = ip(i % 2 == 0 ? 0x0A000000 + i * 13 : 0xC0000000 + i * 97);
+        }
+
+        System.out.println("=== BLOCKLIST BENCHMARK ===");
+        System.out.println("Exact: " + entries + ", CIDR: " + cidrs + ", lookups: " + lookups);
+
+        // Warm both paths before timing
+        for (int w = 0; w < 3; w++) new Blocklist().addAll(ips);
+
+        Blocklist list = new Blocklist();
+        double loadMs = PerformanceTimer.time(() -> list.addAll(ips));
+        double cidrMs = PerformanceTimer.time(() -> list.addAll(ranges));
+        double oneMs  = PerformanceTimer.time(() -> list.addAll(List.of("172.16.0.1")));
+
+        Set<String> chm = ConcurrentHashMap.newKeySet();
+        double chmMs = PerformanceTimer.time(() -> chm.addAll(ips));
+
+        Bench.Table ops = new Bench.Table("%-28s | %-12.2f | %-14.0f", "Operation", "Time (ms)", "Entries/s");
+        row(ops, "Bulk load exact (1 swap)", loadMs, entries);
+        row(ops, "Bulk load CIDR (1 swap)",  cidrMs, cidrs);
+        row(ops, "Single add on full list",  oneMs,  1);
+        row(ops, "CHM set addAll (baseline)", chmMs, entries);
+
+        lookup(null, "warmup", list::contains, probes, lookups / 5);
+        lookup(null, "warmup", chm::contains,  probes, lookups / 5);
+        Bench.Table lookupTable = new Bench.Table("%-28s | %-12.2f | %-14.0f | %-8d",
+                "Lookup", "Time (ms)", "Lookups/s", "Hits");
+        lookup(lookupTable, "Blocklist (exact + CIDR)", list::contains, probes, lookups);
+        lookup(lookupTable, "CHM set (exact only)",     chm::contains,  probes, lookups);
+    }
+
+    private static void row(Bench.Table table, String name, double ms, int n) {
+        table.row(name, ms, n / (ms / 1000.0));
+    }
+
+    // A null table is a warmup run
+    private static void lookup(Bench.Table table, String name, java.util.function.Predicate<String> p,
+                               String[] probes, int n) {
+        int[] hits = new int[1];
+        double ms = PerformanceTimer.time(() -> {
+            int h = 0;
+            for (int i = 0; i < n; i++) if (p.test(probes[i & (probes.length - 1)])) h++;
+            hits[0] = h;
+        });
+        if (table != null) table.row(name, ms, n / (ms / 1000.0), hits[0]);
+    }
+
+    private static String ip(int a) {
+        return ((a >>> 24) & 255) + "." + ((a >>> 16) & 255) + "." + ((a >>> 8) & 255) + "." + (a & 255);
+    }
+}
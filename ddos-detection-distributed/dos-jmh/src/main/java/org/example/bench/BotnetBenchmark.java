@@ -0,0 +1,102 @@
+package org.example.bench;
+
+import org.example.core.DetectionEngine;
+import org.example.core.SharedData;
+import org.example.core.Thresholds;
+import org.example.load.DetectionScore;
+import org.example.load.SourcePopulation;
+import org.example.load.SourcePopulation.Distribution;
+import org.example.util.LatencyHistogram;
+import org.example.util.ProcessStats;
+
+/**
+ * Pushes botnet-shaped traffic straight through SharedData.handler and the
+ * detection tick (no sockets), sweeping population size and distribution.
+ * Reports tick time, retained heap, RSS and block precision/recall, to show
+ * where per-IP state stops scaling. Each run has a few benign-only ticks
+ * first so background sources have history before the attack starts.
+ * A 1M-source run takes minutes per distribution, so it is opt-in via [sizes].
+ *   java -cp target/benchmarks.jar org.example.bench.BotnetBenchmark
+ *       [sizes,...] [distributions,...] [attackTicks] [reqPerBotPerTick] [benign]
+ */
+public class BotnetBenchmark {
+    private static final int WARMUP_TICKS = 4;
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = Bench.listArg(args, 0, "1000,10000,100000");
+        String[] dists = Bench.listArg(args, 1, "UNIFORM,ZIPF,CLUSTERED,ROTATING");
+        int ticks      = Bench.intArg(args, 2, 6);
+        int perBot     = Bench.intArg(args, 3, 2);
+        int benign     = Bench.intArg(args, 4, 1000);
+        SharedData.thresholds.set(Thresholds.DEFAULTS);
+        SharedData.firewallEventSink = null;   // block/unblock lines stay out of the timings
+
+        System.out.println("=== BOTNET DETECTION BENCHMARK ===");
+        System.out.printf("Attack ticks: %d, requests per bot per tick: %d, benign sources: %d (1 req/tick each)%n",
+                ticks, perBot, benign);
+        Bench.Table table = new Bench.Table(
+                "%-10s | %-9d | %-10.0f | %-9.1f | %-9.1f | %-9.0f | %-9.0f | %-9.3f | %-9.3f",
+                "Dist", "Bots", "Req/s hdl", "Tick p50", "Tick max", "Heap MB", "RSS MB", "Precision", "Recall");
+
+        for (String s : sizes) {
+            for (String d : dists) {
+                int size = Integer.parseInt(s);
+                SourcePopulation bots = new SourcePopulation(10, Distribution.valueOf(d), size, 1.0, 2_000);
+                SourcePopulation background = new SourcePopulation(172, Distribution.UNIFORM, benign);
+                reset();
+                try {
+                    run(table, bots, background, size * perBot, benign, ticks);
+                } catch (OutOfMemoryError e) {
+                    reset();
+                    System.out.printf("%-10s | %-9d | out of memory%n", d, size);
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void run(Bench.Table table, SourcePopulation bots, SourcePopulation background,
+                            long attackPerTick, int benignPerTick, int ticks) {
+        DetectionEngine engine = new DetectionEngine();
+        engine.tick();   // baseline the engine's running totals
+        LatencyHistogram tick = new LatencyHistogram();
+        long handled = 0, handleNs = 0;
+        for (int t = 0; t < WARMUP_TICKS + ticks; t++) {
+            long n = t < WARMUP_TICKS ? 0 : attackPerTick;
+            long start = System.nanoTime();
+            for (long i = 0; i < n + benignPerTick; i++) {
+                // Interleave benign requests evenly through the attack
+                boolean isBenign = n == 0 || i % ((n + benignPerTick) / benignPerTick) == 0;
+                send(isBenign ? background.get() : bots.get());
+            }
+            handleNs += System.nanoTime() - start;
+            handled  += n + benignPerTick;
+
+            long t0 = System.nanoTime();
+            engine.tick();
+            if (t >= WARMUP_TICKS) tick.record(System.nanoTime() - t0);
+        }
+        DetectionScore score = DetectionScore.of(bots::contains);
+        System.gc();
+        table.row(bots.distribution, bots.size, handled / (handleNs / 1e9),
+                tick.getValueAtPercentile(50) / 1e6, tick.getMax() / 1e6,
+                ProcessStats.heapUsedBytes() / 1048576.0, ProcessStats.rssBytes() / 1048576.0,
+                score.precision(), score.recall());
+    }
+
+    private static void send(String ip) {
+        try {
+            SharedData.handler.handle(new StubHttpExchange("/index.html", ip));
+        } catch (Exception ignored) {}
+    }
+
+    private static void reset() {
+        SharedData.attemptsByIp.clear();
+        SharedData.servedByIp.clear();
+        SharedData.lastTickByIp.clear();
+        SharedData.statsByIp.clear();
+        SharedData.blockedIPs.clear();
+        SharedData.cooldownByIp.clear();
+        System.gc();
+    }
+}
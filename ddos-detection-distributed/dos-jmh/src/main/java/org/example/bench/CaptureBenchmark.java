@@ -0,0 +1,99 @@
+package org.example.bench;
+
+import org.example.core.PacketCapture;
+import org.example.core.PacketConsumer;
+import org.example.core.SharedData;
+import org.example.load.SourcePopulation;
+import org.example.load.SourcePopulation.Distribution;
+import org.example.load.SyntheticCapture;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/**
+ * Capture ingest without tcpdump or sudo. First times PacketConsumer.countLine
+ * alone over pre-generated lines (parse + per-IP count), then the full
+ * reader -> packetLines -> consumer path fed by a SyntheticCapture stream,
+ * unpaced and at a fixed rate. The unpaced run traces 1 line in traceSample
+ * (0 = off) and prints the per-stage breakdown, with detection ticking.
+ *   java -cp target/benchmarks.jar org.example.bench.CaptureBenchmark
+ *       [lines] [sources,...] [pipelineSec] [pacedRate] [traceSample]
+ */
+public class CaptureBenchmark {
+    public static void main(String[] args) throws Exception {
+        int lines         = Bench.intArg(args, 0, 2_000_000);
+        String[] sizes    = Bench.listArg(args, 1, "1000,100000");
+        int pipelineSec   = Bench.intArg(args, 2, 3);
+        double pacedRate  = Bench.doubleArg(args, 3, 200_000);
+        int traceSample   = Bench.intArg(args, 4, 1000);
+        SharedData.firewallEventSink = null;   // detection blocks sources during the pipeline run
+
+        System.out.println("=== CAPTURE INGEST BENCHMARK ===");
+        System.out.println("Lines per parse run: " + lines + ", pipeline run: " + pipelineSec + " s");
+        Bench.Table parse = new Bench.Table("%-28s | %-10d | %-14.0f | %-10.1f",
+                "Parse + count", "Sources", "Lines/s", "ns/line");
+        for (String s : sizes) {
+            for (Distribution d : new Distribution[]{Distribution.UNIFORM, Distribution.ZIPF}) {
+                int size = Integer.parseInt(s);
+                String[] batch = generate(new SourcePopulation(10, d, size), lines);
+                reset();
+                for (int i = 0; i < Math.min(lines, 200_000); i++) PacketConsumer.countLine(batch[i]);  // warm-up
+                reset();
+                long start = System.nanoTime();
+                for (String line : batch) PacketConsumer.countLine(line);
+                long ns = System.nanoTime() - start;
+                parse.row("countLine " + d, size, lines / (ns / 1e9), ns / (double) lines);
+            }
+        }
+
+        // Full path: the pipeline's threads run for the rest of the process, so one source only
+        SharedData.captureSource     = "synthetic";
+        SharedData.syntheticRate     = 0;
+        SharedData.syntheticSources  = Integer.parseInt(sizes[sizes.length - 1]);
+        SharedData.traceSampleEvery  = traceSample;
+        reset();
+        PacketCapture.startPacketCapture();
+        PacketConsumer.startPacketConsumer();
+        SharedData.detection.start();
+        SyntheticCapture src = PacketCapture.synthetic();
+        Thread.sleep(500);
+        SharedData.pipelineTrace.reset();
+        long c0 = SharedData.totalAttempted.get(), e0 = src.emitted(), t0 = System.nanoTime();
+        Thread.sleep(pipelineSec * 1000L);
+        double sec = (System.nanoTime() - t0) / 1e9;
+        long counted = SharedData.totalAttempted.get() - c0, emitted = src.emitted() - e0;
+        int backlog = SharedData.packetLines.size();
+
+        new Bench.Table("%-28s | %-14.0f | %-14.0f | %-12d",
+                "Pipeline (unpaced)", "Emitted/s", "Counted/s", "Queue depth")
+                .row("reader -> queue -> consumer", emitted / sec, counted / sec, backlog);
+        if (traceSample > 0) {
+            System.out.printf("%nTraced 1 line in %d%n", traceSample);
+            System.out.print(SharedData.pipelineTrace.report());
+        }
+
+        SyntheticCapture paced = new SyntheticCapture(new SourcePopulation(10, Distribution.UNIFORM, 1000),
+                pacedRate, 8080, null);
+        long p0 = System.nanoTime();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(paced))) {
+            for (int i = 0; i < pacedRate * 2; i++) br.readLine();
+        }
+        System.out.printf("%nPaced source: target %.0f lines/s, achieved %.0f lines/s%n",
+                pacedRate, pacedRate * 2 / ((System.nanoTime() - p0) / 1e9));
+        System.exit(0);
+    }
+
+    private static String[] generate(SourcePopulation sources, int n) throws IOException {
+        String[] out = new String[n];
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new SyntheticCapture(sources, 0, 8080, null)))) {
+            for (int i = 0; i < n; i++) out[i] = br.readLine();
+        }
+        return out;
+    }
+
+    private static void reset() {
+        SharedData.attemptsByIp.clear();
+        SharedData.totalAttempted.set(0);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.bench;
+
+import org.example.util.Downsampler;
+import org.example.util.PerformanceTimer;
+import org.example.util.RingSeries;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Compares refresh+render cost of the monitor chart with the full series
+ * against the ring window downsampled by LTTB and min/max. Renders
+ * off-screen, so it runs headless.
+ *   java -Djava.awt.headless=true -cp target/benchmarks.jar org.example.bench.ChartBenchmark
+ *       [maxPoints] [reps]
+ */
+public class ChartBenchmark {
+    public static void main(String[] args) {
+        int maxPoints = Bench.intArg(args, 0, 600);
+        int reps      = Bench.intArg(args, 1, 20);
+
+        System.out.println("=== CHART REFRESH BENCHMARK ===");
+        System.out.println("Max points: " + maxPoints + ", repetitions: " + reps);
+        Bench.Table table = new Bench.Table("%-10d | %-10s | %-10d | %-16.2f",
+                "Points", "Mode", "Drawn", "Refresh+render ms");
+        BufferedImage img = new BufferedImage(900, 300, BufferedImage.TYPE_INT_ARGB);
+        for (int n : new int[]{3_600, 21_600, 86_400}) {
+            RingSeries ring = new RingSeries(n);
+            long t0 = System.currentTimeMillis() - n * 1000L;
+            for (int i = 0; i < n; i++) {
+                ring.add(t0 + i * 1000L, 1000 + 400 * Math.sin(i / 300.0) + (i % 997 == 0 ? 20_000 : 0));
+            }
+            for (String mode : new String[]{"FULL", "LTTB", "MIN_MAX"}) {
+                XYSeries series = new XYSeries("Inbound", false, true);
+                JFreeChart chart = ChartFactory.createTimeSeriesChart(
+                        "Inbound", "Time", "Req/s", new XYSeriesCollection(series), false, false, false);
+                int[] drawn = new int[1];
+                Runnable refresh = () -> {
+                    RingSeries.Window w = ring.since(t0);
+                    int[] keep = "FULL".equals(mode)
+                            ? null
+                            : Downsampler.downsample(Downsampler.Mode.valueOf(mode), w.ts, w.values, maxPoints);
+                    series.setNotify(false);
+                    series.clear();
+                    if (keep == null) {
+                        for (int i = 0; i < w.size(); i++) series.add(w.ts[i], w.values[i], false);
+                    } else {
+                        for (int i : keep) series.add(w.ts[i], w.values[i], false);
+                    }
+                    series.setNotify(true);
+                    drawn[0] = series.getItemCount();
+                    Graphics2D g = img.createGraphics();
+                    chart.draw(g, new Rectangle2D.Double(0, 0, img.getWidth(), img.getHeight()));
+                    g.dispose();
+                };
+                for (int i = 0; i < 3; i++) refresh.run();
+                double ms = PerformanceTimer.time(() -> { for (int i = 0; i < reps; i++) refresh.run(); }) / reps;
+                table.row(n, mode, drawn[0], ms);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.core.HttpServerStarter;
+import org.example.core.HttpServerStarter.ExecutorMode;
+import org.example.core.SharedData;
+import org.example.util.LatencyHistogram;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the HTTP executor modes under two hostile scenarios while a set of
+ * legitimate clients measures latency:
+ *   SLOW  - clients that trickle request headers and pin whichever thread parses them
+ *   FLOOD - closed-loop clients hammering the server as fast as it answers
+ *
+ *   java -cp target/benchmarks.jar org.example.bench.HttpServerBenchmark
+ *       [seconds] [legit] [slow] [flood] [carriers] [maxReqTimeSec]
+ */
+public class HttpServerBenchmark {
+    private enum Scenario { SLOW, FLOOD }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = Bench.intArg(args, 0, 5);
+        int legit   = Bench.intArg(args, 1, 20);
+        int slow    = Bench.intArg(args, 2, 64);
+        int flood   = Bench.intArg(args, 3, 64);
+        SharedData.virtualCarriers   = Bench.intArg(args, 4, 0);
+        SharedData.httpMaxReqTimeSec = Bench.intArg(args, 5, 0);
+        HttpServerStarter.applyServerProperties();
+
+        System.out.println("=== HTTP EXECUTOR MODE BENCHMARK ===");
+        System.out.printf("Duration: %d s, legit clients: %d, slow clients: %d, flood clients: %d%n",
+                seconds, legit, slow, flood);
+        System.out.printf("Fixed workers: %d, virtual limit: %d, carriers: %s, maxReqTime: %s%n",
+                SharedData.httpWorkers, SharedData.virtualConcurrency,
+                SharedData.virtualCarriers > 0 ? SharedData.virtualCarriers : "default",
+                SharedData.httpMaxReqTimeSec > 0 ? SharedData.httpMaxReqTimeSec + " s" : "off");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (ExecutorMode mode : ExecutorMode.values()) {
+            for (Scenario scenario : Scenario.values()) {
+                rows.add(run(mode, scenario, seconds, legit, scenario == Scenario.SLOW ? slow : flood));
+            }
+        }
+
+        Bench.Table table = new Bench.Table("%-16s | %-8s | %-14.0f | %-10.2f | %-10.2f | %-10.2f | %-8d",
+                "Mode", "Scenario", "Total req/s", "p50 (ms)", "p99 (ms)", "max (ms)", "Timeouts");
+        rows.forEach(table::row);
+        System.exit(0);
+    }
+
+    private static Object[] run(ExecutorMode mode, Scenario scenario, int seconds, int legit, int hostile)
+            throws Exception {
+        SharedData.executorMode = mode;
+        HttpServer server = HttpServerStarter.startHttpServer(0);
+        int port = server.getAddress().getPort();
+        URI uri = URI.create("http://127.0.0.1:" + port + "/index.html");
+
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clients)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder completed = new LongAdder(), timeouts = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        for (int i = 0; i < hostile; i++) {
+            String ip = "10.66." + (i / 256) + "." + (i % 256);
+            if (scenario == Scenario.SLOW) {
+                clients.submit(() -> slowClient(port, deadline));
+            } else {
+                clients.submit(() -> client(http, uri, ip, deadline, 0, null, completed, null));
+            }
+        }
+        for (int i = 0; i < legit; i++) {
+            String ip = "192.0.2." + (i % 256);
+            clients.submit(() -> client(http, uri, ip, deadline, 10, latency, completed, timeouts));
+        }
+
+        Thread.sleep(seconds * 1000L + 500);
+        clients.shutdownNow();
+        HttpServerStarter.stopHttpServer(server);
+
+        return new Object[]{mode, scenario, completed.sum() / (double) seconds,
+                latency.getValueAtPercentile(50) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6,
+                latency.getMax() / 1e6,
+                timeouts.sum()};
+    }
+
+    private static void client(HttpClient http, URI uri, String ip, long deadline, long pauseMs,
+                               LatencyHistogram latency, LongAdder completed, LongAdder timeouts) {
+        HttpRequest req = HttpRequest.newBuilder(uri)
+                .header("X-Forwarded-For", ip)
+                .timeout(Duration.ofSeconds(2))
+                .GET().build();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                http.send(req, HttpResponse.BodyHandlers.discarding());
+                completed.increment();
+                if (latency != null) latency.record(System.nanoTime() - start);
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                if (timeouts != null) timeouts.increment();
+            }
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Sends a request line, then one header byte every 200 ms until the deadline.
+    private static void slowClient(int port, long deadline) {
+        try (Socket s = new Socket("127.0.0.1", port)) {
+            OutputStream out = s.getOutputStream();
+            out.write("GET /index.html HTTP/1.1\r\nHost: localhost\r\nX-Slow: ".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            while (System.nanoTime() < deadline) {
+                out.write('a');
+                out.flush();
+                Thread.sleep(200);
+            }
+        } catch (Exception ignored) {}
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.core.HttpServerStarter;
+import org.example.load.LoadGenerator;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Target vs achieved request rate against an embedded server: the open-loop
+ * LoadGenerator at several targets, then the old simulator loop (serial
+ * HttpURLConnection per request, batches every 200 ms) at its slider maximum.
+ * Server and generator share the machine, so the ceiling is the box's, not
+ * the generator's alone.
+ *   java -cp target/benchmarks.jar org.example.bench.LoadGeneratorBenchmark
+ *       [seconds] [connections] [rates,...]
+ */
+public class LoadGeneratorBenchmark {
+    public static void main(String[] args) throws Exception {
+        int seconds = Bench.intArg(args, 0, 5);
+        int conns   = Bench.intArg(args, 1, 32);
+        String[] rates = Bench.listArg(args, 2, "1000,5000,10000,20000,50000");
+
+        HttpServer server = HttpServerStarter.startHttpServer(0);
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/index.html");
+
+        System.out.println("=== LOAD GENERATOR BENCHMARK ===");
+        System.out.printf("Duration: %d s per run, connections: %d, CPUs: %d%n",
+                seconds, conns, Runtime.getRuntime().availableProcessors());
+        // Errors and lag are text so the baseline row can show "-"
+        Bench.Table table = new Bench.Table("%-22s | %-12.0f | %-12.0f | %-10.2f | %-8s | %-8s",
+                "Generator", "Target/s", "Achieved/s", "Ratio", "Errors", "Lag ms");
+
+        for (String r : rates) {
+            double rate = Double.parseDouble(r);
+            LoadGenerator gen = new LoadGenerator(uri);
+            AtomicInteger next = new AtomicInteger();
+            LoadGenerator.Group g = gen.addGroup("bench", conns, rate,
+                    () -> "10.0.0." + (next.getAndIncrement() & 255));
+            gen.start();
+            Thread.sleep(1000);                     // warm-up
+            long done0 = g.completed(), t0 = System.nanoTime();
+            Thread.sleep(seconds * 1000L);
+            double achieved = (g.completed() - done0) / ((System.nanoTime() - t0) / 1e9);
+            double lag = g.lagMillis();
+            gen.stop();
+            table.row("LoadGenerator", rate, achieved, achieved / rate,
+                    g.errors.sum() + g.timeouts.sum(), Math.round(lag));
+            Thread.sleep(500);
+        }
+
+        // Old simulator: 3 clients at the 1000 req/s slider maximum
+        double legacyTarget = 3 * 1000;
+        LongAdder legacyDone = new LongAdder();
+        ScheduledExecutorService sched = Executors.newScheduledThreadPool(3);
+        URL url = uri.toURL();
+        for (int c = 0; c < 3; c++) {
+            String ip = "127.0.0." + (c + 1);
+            sched.scheduleAtFixedRate(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+                        conn.setRequestProperty("X-Forwarded-For", ip);
+                        conn.setConnectTimeout(1000);
+                        conn.setReadTimeout(1000);
+                        conn.getResponseCode();
+                        conn.disconnect();
+                        legacyDone.increment();
+                    } catch (Exception ignored) {}
+                }
+            }, 0, 200, TimeUnit.MILLISECONDS);
+        }
+        Thread.sleep(1000);
+        long done0 = legacyDone.sum(), t0 = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        double achieved = (legacyDone.sum() - done0) / ((System.nanoTime() - t0) / 1e9);
+        sched.shutdownNow();
+        table.row("HttpURLConnection loop", legacyTarget, achieved, achieved / legacyTarget, "-", "-");
+        HttpServerStarter.stopHttpServer(server);
+        System.exit(0);
+    }
+}
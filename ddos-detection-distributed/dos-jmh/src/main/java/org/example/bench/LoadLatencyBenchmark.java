@@ -0,0 +1,57 @@
+package org.example.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.core.HttpServerStarter;
+import org.example.core.SharedData;
+import org.example.load.LoadGenerator;
+import org.example.load.LoadReport;
+import org.example.load.SourcePopulation;
+import org.example.load.SourcePopulation.Distribution;
+
+import java.net.URI;
+
+/**
+ * Legitimate users vs a single-source flood against the embedded server with
+ * detection running. Latency is taken from each request's intended send time,
+ * per group and outcome, alongside plain service time (what a closed-loop
+ * client would have reported).
+ *   java -cp target/benchmarks.jar org.example.bench.LoadLatencyBenchmark
+ *       [seconds] [legitRate] [floodRate] [legitSources]
+ */
+public class LoadLatencyBenchmark {
+    public static void main(String[] args) throws Exception {
+        int seconds    = Bench.intArg(args, 0, 10);
+        int legitRate  = Bench.intArg(args, 1, 500);
+        int floodRate  = Bench.intArg(args, 2, 10_000);
+        int legitCount = Bench.intArg(args, 3, 200);
+        SharedData.firewallEventSink = null;   // keep block/unblock lines out of the report
+
+        HttpServer server = HttpServerStarter.startHttpServer(0);
+        URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/index.html");
+
+        System.out.println("=== LOAD LATENCY BENCHMARK ===");
+        System.out.printf("Duration: %d s, legit: %d req/s from %d sources, flood: %d req/s from 1 source, tick: %d ms%n",
+                seconds, legitRate, legitCount, floodRate, SharedData.tickMs);
+
+        LoadGenerator gen = new LoadGenerator(uri);
+        gen.setTimeoutMs(1000);
+        SourcePopulation legit = new SourcePopulation(172, Distribution.UNIFORM, legitCount);
+        gen.addGroup("legit", 16, legitRate, legit);
+        gen.addGroup("flood", 32, floodRate, () -> "10.0.0.1");
+
+        SharedData.detection.start();
+        gen.start();
+        Thread.sleep(seconds * 1000L);
+        gen.stop();
+
+        System.out.println();
+        System.out.print(LoadReport.latencyTable(gen.getGroups()));
+        for (LoadGenerator.Group g : gen.getGroups()) {
+            System.out.printf("%-6s sent %d, served %d, 403 %d, 429/503 %d, timeouts %d, errors %d%n",
+                    g.name, g.sent.sum(), g.served.sum(), g.forbidden.sum(), g.limited.sum(),
+                    g.timeouts.sum(), g.errors.sum());
+        }
+        HttpServerStarter.stopHttpServer(server);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.bench;
+
+import org.example.core.SharedData;
+import org.example.ui.FirewallLogPanel;
+import org.example.util.LatencyHistogram;
+
+import javax.swing.*;
+import java.util.function.Consumer;
+
+/**
+ * Floods the firewall log at a fixed event rate and measures how responsive
+ * the EDT stays, comparing the old JTextArea + invokeLater-per-event view with
+ * the ring-backed FirewallLogPanel. A probe posts to the EDT every 10 ms and
+ * records how long it waited. Runs headless (components are never shown).
+ *   java -Djava.awt.headless=true -cp target/benchmarks.jar org.example.bench.LogPanelBenchmark
+ *       [eventsPerSec] [seconds]
+ */
+public class LogPanelBenchmark {
+    public static void main(String[] args) throws Exception {
+        int rate    = Bench.intArg(args, 0, 10_000);
+        int seconds = Bench.intArg(args, 1, 5);
+
+        System.out.println("=== FIREWALL LOG BENCHMARK ===");
+        System.out.println("Rate: " + rate + " events/s, duration: " + seconds + " s");
+
+        JTextArea legacyArea = new JTextArea();
+        Result legacy = run("Legacy JTextArea", rate, seconds,
+                line -> SwingUtilities.invokeLater(() -> legacyArea.append(line)));
+        FirewallLogPanel[] panel = new FirewallLogPanel[1];
+        SwingUtilities.invokeAndWait(() -> panel[0] = new FirewallLogPanel());
+        Result ring = run("Ring + coalesced", rate, seconds, panel[0]::appendLog);
+
+        Bench.Table table = new Bench.Table("%-18s | %-10d | %-14.2f | %-14.2f | %-14.2f",
+                "View", "Appended", "EDT p50 (ms)", "EDT p99 (ms)", "EDT max (ms)");
+        for (Result r : new Result[]{legacy, ring}) {
+            table.row(r.name, r.appended,
+                    r.probe.getValueAtPercentile(50) / 1e6, r.probe.getValueAtPercentile(99) / 1e6,
+                    r.probe.getMax() / 1e6);
+        }
+        System.out.println("\nLegacy document length: " + legacyArea.getDocument().getLength()
+                + " chars; ring holds at most " + SharedData.logCapacity + " lines");
+        System.exit(0);
+    }
+
+    private static Result run(String name, int rate, int seconds, Consumer<String> sink) throws Exception {
+        LatencyHistogram probe = new LatencyHistogram();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread prober = new Thread(() -> {
+            while (System.nanoTime() < end) {
+                long posted = System.nanoTime();
+                try {
+                    SwingUtilities.invokeAndWait(() -> probe.record(System.nanoTime() - posted));
+                    Thread.sleep(10);
+                } catch (Exception e) {
+                    return;
+                }
+            }
+        }, "EdtProbe");
+        prober.start();
+
+        long appended = 0;
+        long intervalNs = 1_000_000_000L / rate;
+        long next = System.nanoTime();
+        while (next < end) {
+            sink.accept(String.format("[2026-01-01 00:00:00] Blocked 10.0.%d.%d (rps=%d)%n",
+                    (appended >> 8) & 255, appended & 255, 400 + appended % 100));
+            appended++;
+            next += intervalNs;
+            long sleep = next - System.nanoTime();
+            if (sleep > 1_000_000) Thread.sleep(sleep / 1_000_000);
+        }
+        prober.join();
+        // Let the EDT drain before the next run
+        SwingUtilities.invokeAndWait(() -> {});
+        return new Result(name, appended, probe);
+    }
+
+    private static class Result {
+        final String name;
+        final long appended;
+        final LatencyHistogram probe;
+
+        Result(String name, long appended, LatencyHistogram probe) {
+            this.name     = name;
+            this.appended = appended;
+            this.probe    = probe;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.bench;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.core.HttpServerStarter;
+import org.example.core.ReverseProxy;
+import org.example.core.SharedData;
+import org.example.util.LatencyHistogram;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proxying overhead: the same closed-loop load against a local stub backend,
+ * once directly and once through the handler in reverse-proxy mode.
+ *   java -cp target/benchmarks.jar org.example.bench.ProxyBenchmark [seconds] [clients] [bodyBytes]
+ */
+public class ProxyBenchmark {
+    public static void main(String[] args) throws Exception {
+        int seconds   = Bench.intArg(args, 0, 5);
+        int clients   = Bench.intArg(args, 1, 16);
+        int bodyBytes = Bench.intArg(args, 2, 4096);
+
+        HttpServerStarter.applyServerProperties();
+        HttpServer backend = startStubBackend(bodyBytes);
+        String backendUrl = "http://127.0.0.1:" + backend.getAddress().getPort();
+
+        SharedData.executorMode = HttpServerStarter.ExecutorMode.VIRTUAL;
+        SharedData.reverseProxy.setUpstreams(backendUrl);
+        HttpServer proxy = HttpServerStarter.startHttpServer(0);
+        String proxyUrl = "http://127.0.0.1:" + proxy.getAddress().getPort();
+
+        System.out.println("=== REVERSE PROXY OVERHEAD BENCHMARK ===");
+        System.out.printf("Duration: %d s, clients: %d, body: %d bytes%n", seconds, clients, bodyBytes);
+
+        run("warmup", proxyUrl, 1, clients);
+        Object[] direct  = run("Direct",  backendUrl, seconds, clients);
+        Object[] proxied = run("Proxied", proxyUrl,   seconds, clients);
+
+        Bench.Table table = new Bench.Table("%-8s | %-10.0f | %-10.2f | %-10.2f | %-10.2f | %-8d",
+                "Path", "req/s", "p50 (ms)", "p99 (ms)", "max (ms)", "Errors");
+        table.row(direct);
+        table.row(proxied);
+
+        ReverseProxy.UpstreamStats st = SharedData.reverseProxy.getStats().get(backendUrl);
+        System.out.printf("%nUpstream %s: headers p99 %.2f ms, total p99 %.2f ms, errors %d%n",
+                backendUrl, st.headerLatency.getValueAtPercentile(99) / 1e6,
+                st.totalLatency.getValueAtPercentile(99) / 1e6, st.errors.get());
+        System.exit(0);
+    }
+
+    private static HttpServer startStubBackend(int bodyBytes) throws Exception {
+        byte[] body = new byte[bodyBytes];
+        Arrays.fill(body, (byte) 'x');
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", ex -> {
+            ex.getResponseHeaders().add("Content-Type", "text/plain");
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private static Object[] run(String name, String baseUrl, int seconds, int clients) throws Exception {
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            HttpRequest req = HttpRequest.newBuilder(URI.create(baseUrl + "/index.html"))
+                    .header("X-Forwarded-For", "192.0.2." + i)
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> r = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+                        if (r.statusCode() == 200) latency.record(System.nanoTime() - start);
+                        else errors.increment();
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return new Object[]{name, latency.getCount() / (double) seconds,
+                latency.getValueAtPercentile(50) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6,
+                latency.getMax() / 1e6, errors.sum()};
+    }
+}
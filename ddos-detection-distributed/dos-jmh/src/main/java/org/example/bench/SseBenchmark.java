@@ -0,0 +1,123 @@
+package org.example.bench;
+
+import org.example.core.EventStream;
+import org.example.util.LatencyHistogram;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes ticks to many SSE subscribers, some of which never read, and
+ * reports the cost of publishTick() on the tick thread, frames delivered to
+ * the readers and how many stalled subscribers were dropped.
+ *   java -cp target/benchmarks.jar org.example.bench.SseBenchmark [fast] [slow] [ticks] [tickMs] [topK]
+ */
+public class SseBenchmark {
+    public static void main(String[] args) throws Exception {
+        int fast   = Bench.intArg(args, 0, 200);
+        int slow   = Bench.intArg(args, 1, 20);
+        int ticks  = Bench.intArg(args, 2, 500);
+        int tickMs = Bench.intArg(args, 3, 20);
+        int topK   = Bench.intArg(args, 4, 200);
+
+        int port = EventStream.start(0);
+        InetSocketAddress addr = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+
+        System.out.println("=== SSE FAN-OUT BENCHMARK ===");
+        System.out.println("Fast: " + fast + ", slow: " + slow + ", ticks: " + ticks
+                + " every " + tickMs + " ms, top-K: " + topK);
+
+        LongAdder received = new LongAdder();
+        List<Socket> sockets = new ArrayList<>();
+        for (int i = 0; i < fast; i++) {
+            Socket s = subscribe(addr, 0);
+            sockets.add(s);
+            Thread.ofVirtual().start(() -> countTicks(s, received));
+        }
+        for (int i = 0; i < slow; i++) sockets.add(subscribe(addr, 4096));
+        while (EventStream.subscribers.get() < fast + slow) Thread.sleep(10);
+
+        LatencyHistogram publish = new LatencyHistogram();
+        for (int t = 0; t < ticks; t++) {
+            Map<String, Object> tick = tick(t, topK);
+            long start = System.nanoTime();
+            EventStream.publishTick(tick);
+            publish.record(System.nanoTime() - start);
+            Thread.sleep(tickMs);
+        }
+        Thread.sleep(1000);
+
+        // Counts and averages share the value column, so values are formatted here
+        Bench.Table table = new Bench.Table("%-30s | %-14s", "Metric", "Value");
+        table.row("Frames published",           EventStream.frames.get());
+        table.row("Frame size (bytes)",         EventStream.lastFrameBytes);
+        table.row("Avg frames per fast client", oneDecimal(received.sum() / (double) fast));
+        table.row("Slow subscribers dropped",   EventStream.dropped.get());
+        table.row("Subscribers remaining",      EventStream.subscribers.get());
+        table.row("publishTick p50 (us)",       oneDecimal(publish.getValueAtPercentile(50) / 1e3));
+        table.row("publishTick p99 (us)",       oneDecimal(publish.getValueAtPercentile(99) / 1e3));
+        table.row("publishTick max (us)",       oneDecimal(publish.getMax() / 1e3));
+        for (Socket s : sockets) s.close();
+        System.exit(0);
+    }
+
+    private static Socket subscribe(InetSocketAddress addr, int receiveBuffer) throws Exception {
+        Socket s = new Socket();
+        if (receiveBuffer > 0) s.setReceiveBufferSize(receiveBuffer);
+        s.connect(addr);
+        OutputStream os = s.getOutputStream();
+        os.write("GET /events HTTP/1.1\r\nHost: bench\r\nAccept: text/event-stream\r\n\r\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        os.flush();
+        return s;
+    }
+
+    // Counts "event: tick" lines without decoding the stream
+    private static void countTicks(Socket s, LongAdder received) {
+        byte[] marker = "event: tick".getBytes(StandardCharsets.US_ASCII);
+        byte[] buf = new byte[16 * 1024];
+        int matched = 0;
+        try (InputStream in = s.getInputStream()) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    matched = buf[i] == marker[matched] ? matched + 1 : (buf[i] == marker[0] ? 1 : 0);
+                    if (matched == marker.length) {
+                        received.increment();
+                        matched = 0;
+                    }
+                }
+            }
+        } catch (Exception ignored) {
+        }
+    }
+
+    private static Map<String, Object> tick(int t, int topK) {
+        List<Map<String, Object>> top = new ArrayList<>(topK);
+        for (int i = 0; i < topK; i++) {
+            Map<String, Object> e = new LinkedHashMap<>();
+            e.put("ip",   "10.0." + (i >> 8) + "." + (i & 255));
+            e.put("rate", (long) (topK - i) * 10 + t % 7);
+            top.add(e);
+        }
+        Map<String, Object> tick = new LinkedHashMap<>();
+        tick.put("ts",      System.currentTimeMillis());
+        tick.put("inbound", 50_000L + t);
+        tick.put("served",  40_000L + t);
+        tick.put("top",     top);
+        return tick;
+    }
+
+    private static String oneDecimal(double v) {
+        return String.format("%.1f", v);
+    }
+}
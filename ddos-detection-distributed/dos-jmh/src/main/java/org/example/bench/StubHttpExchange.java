@@ -0,0 +1,66 @@
+package org.example.bench;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+/**
+ * In-memory HttpExchange so handler benchmarks measure the request path
+ * without the socket, accept loop or HTTP parser in the way.
+ */
+public class StubHttpExchange extends HttpExchange {
+    private static final InetSocketAddress LOCAL  = new InetSocketAddress("127.0.0.1", 8080);
+    private static final InetSocketAddress REMOTE = new InetSocketAddress("127.0.0.1", 50000);
+
+    private final Headers requestHeaders  = new Headers();
+    private final Headers responseHeaders = new Headers();
+    private final URI uri;
+    private final OutputStream body = new OutputStream() {
+        @Override public void write(int b) { bytesWritten++; }
+        @Override public void write(byte[] b, int off, int len) { bytesWritten += len; }
+    };
+    private InputStream in = new ByteArrayInputStream(new byte[0]);
+    private int  responseCode = -1;
+    private long bytesWritten = 0;
+
+    public StubHttpExchange(String path, String forwardedFor) {
+        this.uri = URI.create(path);
+        if (forwardedFor != null) requestHeaders.add("X-Forwarded-For", forwardedFor);
+    }
+
+    @Override public Headers getRequestHeaders()   { return requestHeaders;  }
+    @Override public Headers getResponseHeaders()  { return responseHeaders; }
+    @Override public URI getRequestURI()           { return uri;             }
+    @Override public String getRequestMethod()     { return "GET";           }
+    @Override public HttpContext getHttpContext()  { return null;            }
+    @Override public void close()                  { }
+    @Override public InputStream getRequestBody()  { return in;              }
+    @Override public int getResponseCode()         { return responseCode;    }
+    @Override public InetSocketAddress getRemoteAddress() { return REMOTE;   }
+    @Override public InetSocketAddress getLocalAddress()  { return LOCAL;    }
+    @Override public String getProtocol()          { return "HTTP/1.1";      }
+    @Override public Object getAttribute(String name)             { return null; }
+    @Override public void setAttribute(String name, Object value) { }
+    @Override public HttpPrincipal getPrincipal()  { return null;            }
+
+    @Override public OutputStream getResponseBody() { return body;           }
+
+    @Override
+    public void sendResponseHeaders(int rCode, long responseLength) {
+        this.responseCode = rCode;
+    }
+
+    @Override
+    public void setStreams(InputStream i, OutputStream o) {
+        if (i != null) in = i;
+    }
+
+    public long getBytesWritten() { return bytesWritten; }
+}
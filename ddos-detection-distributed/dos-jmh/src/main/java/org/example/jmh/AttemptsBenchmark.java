@@ -0,0 +1,54 @@
+package org.example.jmh;
+
+import org.example.core.SharedData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** The per-request attemptsByIp update, as done by the handler and the capture consumer. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttemptsBenchmark {
+    @Param({"1000", "1000000"})
+    int ips;
+
+    String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.resetSharedData();
+        keys = Fixtures.ips(ips);
+    }
+
+    @Benchmark
+    public long update(Cursor c) {
+        return bump(keys[c.i++ % keys.length]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long update4Threads(Cursor c) {
+        return bump(keys[c.i++ % keys.length]);
+    }
+
+    /** All threads hammering one source, the single-attacker case. */
+    @Benchmark
+    @Threads(4)
+    public long updateHotKey4Threads() {
+        return bump(keys[0]);
+    }
+
+    private static long bump(String ip) {
+        return SharedData.attemptsByIp.computeIfAbsent(ip, k -> new AtomicLong(0)).incrementAndGet();
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.jmh;
+
+import org.example.core.SharedData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** blockedIPs membership, and the full isBlocked check that adds the operator blocklist (exact + CIDR). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockedLookupBenchmark {
+    @Param({"100", "100000"})
+    int blocked;
+
+    String[] hits, misses;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.resetSharedData();
+        hits = Fixtures.ips(blocked);
+        for (String ip : hits) SharedData.blockedIPs.add(ip);
+        misses = new String[1024];
+        for (int i = 0; i < misses.length; i++) misses[i] = "192.168." + (i >> 8) + "." + (i & 255);
+        List<String> cidrs = new ArrayList<>();
+        for (int i = 0; i < 256; i++) cidrs.add("172." + i + ".0.0/16");
+        SharedData.blocklist.addAll(cidrs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SharedData.blocklist.removeAll(SharedData.blocklist.cidrEntries());
+    }
+
+    @Benchmark
+    public boolean containsHit(Cursor c) {
+        return SharedData.blockedIPs.contains(hits[c.i++ % hits.length]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(Cursor c) {
+        return SharedData.blockedIPs.contains(misses[c.i++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean isBlockedMiss(Cursor c) {
+        return SharedData.isBlocked(misses[c.i++ & 1023]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean isBlockedMiss4Threads(Cursor c) {
+        return SharedData.isBlocked(misses[c.i++ & 1023]);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.jmh;
+
+import org.example.core.DetectionEngine;
+import org.example.core.SharedData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** One full DetectionEngine.tick() over N tracked IPs with fresh per-tick counts. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DetectionTickBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int ipCount;
+
+    AtomicLong[] counters;
+    DetectionEngine engine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.resetSharedData();
+        Fixtures.muteFirewallEvents();
+        String[] ips = Fixtures.ips(ipCount);
+        counters = new AtomicLong[ipCount];
+        for (int i = 0; i < ipCount; i++) {
+            counters[i] = new AtomicLong();
+            SharedData.attemptsByIp.put(ips[i], counters[i]);
+        }
+        engine = new DetectionEngine();
+    }
+
+    // Not timed: the traffic that arrived since the last tick
+    @Setup(Level.Invocation)
+    public void traffic() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < counters.length; i++) {
+            // Mostly light sources, a few heavy hitters
+            counters[i].addAndGet(i % 1000 == 0 ? 500 + rnd.nextInt(500) : rnd.nextInt(5));
+        }
+    }
+
+    @Benchmark
+    public DetectionEngine.Tick tick() {
+        engine.tick();
+        return engine.getLastTick();
+    }
+}
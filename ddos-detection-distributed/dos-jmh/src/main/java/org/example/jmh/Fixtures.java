@@ -0,0 +1,52 @@
+package org.example.jmh;
+
+import org.example.core.SharedData;
+import org.example.core.Thresholds;
+import org.example.load.SourcePopulation;
+import org.example.load.SyntheticCapture;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+
+/** Inputs and shared-state resets used across the benchmarks. */
+final class Fixtures {
+    private Fixtures() {}
+
+    /** {@code n} distinct addresses 10.x.y.z in a fixed order. */
+    static String[] ips(int n) {
+        String[] ips = new String[n];
+        for (int i = 0; i < n; i++) {
+            ips[i] = "10." + ((i >> 16) & 255) + "." + ((i >> 8) & 255) + "." + (i & 255);
+        }
+        return ips;
+    }
+
+    /** {@code n} tcpdump-style lines from {@code sources} uniform sources. */
+    static String[] tcpdumpLines(int n, int sources) throws IOException {
+        String[] lines = new String[n];
+        SyntheticCapture capture = new SyntheticCapture(
+                new SourcePopulation(10, SourcePopulation.Distribution.UNIFORM, sources), 0, 8080, null);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(capture))) {
+            for (int i = 0; i < n; i++) lines[i] = br.readLine();
+        }
+        return lines;
+    }
+
+    static void resetSharedData() {
+        SharedData.attemptsByIp.clear();
+        SharedData.servedByIp.clear();
+        SharedData.lastTickByIp.clear();
+        SharedData.statsByIp.clear();
+        SharedData.blockedIPs.clear();
+        SharedData.cooldownByIp.clear();
+        SharedData.totalAttempted.set(0);
+        SharedData.totalServed.set(0);
+        SharedData.thresholds.set(Thresholds.DEFAULTS);
+    }
+
+    /** Block/unblock lines go to stdout without a log panel; keep them out of the run. */
+    static void muteFirewallEvents() {
+        SharedData.firewallEventSink = null;
+    }
+}
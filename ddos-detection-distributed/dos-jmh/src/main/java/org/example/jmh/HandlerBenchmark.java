@@ -0,0 +1,53 @@
+package org.example.jmh;
+
+import org.example.core.SharedData;
+import org.example.core.Thresholds;
+import org.example.bench.StubHttpExchange;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** The full SharedData.handler request path against an in-memory exchange. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerBenchmark {
+    @Param({"1000", "100000"})
+    int ips;
+
+    @Param({"false", "true"})
+    boolean rateLimit;
+
+    String[] keys;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.resetSharedData();
+        SharedData.thresholds.set(Thresholds.DEFAULTS.with("rateLimit", String.valueOf(rateLimit)));
+        keys = Fixtures.ips(ips);
+    }
+
+    @Benchmark
+    public StubHttpExchange handle(Cursor c) throws IOException {
+        StubHttpExchange ex = new StubHttpExchange("/index.html", keys[c.i++ % keys.length]);
+        SharedData.handler.handle(ex);
+        return ex;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public StubHttpExchange handle4Threads(Cursor c) throws IOException {
+        StubHttpExchange ex = new StubHttpExchange("/index.html", keys[c.i++ % keys.length]);
+        SharedData.handler.handle(ex);
+        return ex;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.jmh;
+
+import org.example.core.DetectionEngine;
+import org.example.core.IpSnapshot;
+import org.example.core.SharedData;
+import org.example.ui.IpTablePanel;
+import org.openjdk.jmh.annotations.*;
+
+import javax.swing.*;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The per-IP view: refreshing and painting the table from one tick's
+ * snapshot on the EDT, and the search box, which stops at tableRows hits
+ * or scans every tracked IP when nothing matches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class IpTableBenchmark {
+    @Param({"10000", "100000"})
+    int ipCount;
+
+    @Param({"500"})
+    int tableRows;
+
+    IpTablePanel panel;
+    DetectionEngine.Tick tick;
+    BufferedImage img;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        Fixtures.resetSharedData();
+        Fixtures.muteFirewallEvents();
+        SharedData.tableRows = tableRows;
+        String[] ips = Fixtures.ips(ipCount);
+        for (int i = 0; i < ipCount; i++) SharedData.attemptsByIp.put(ips[i], new AtomicLong());
+        DetectionEngine engine = new DetectionEngine();
+        engine.tick();
+        for (int i = 0; i < ipCount; i++) {
+            // Mostly light sources, a few heavy hitters
+            SharedData.attemptsByIp.get(ips[i]).addAndGet(i % 1000 == 0 ? 700 : i % 5);
+        }
+        engine.tick();
+        tick = engine.getLastTick();
+        img = new BufferedImage(900, 500, BufferedImage.TYPE_INT_ARGB);
+        SwingUtilities.invokeAndWait(() -> {
+            panel = new IpTablePanel();
+            panel.setSize(img.getWidth(), img.getHeight());
+            panel.doLayout();
+        });
+    }
+
+    @Benchmark
+    public void refreshAndPaint() throws Exception {
+        panel.onTick(tick);
+        // Queued behind the refresh onTick posted to the EDT
+        SwingUtilities.invokeAndWait(() -> {
+            panel.validate();
+            Graphics2D g = img.createGraphics();
+            panel.paint(g);
+            g.dispose();
+        });
+    }
+
+    @Benchmark
+    public List<IpSnapshot> searchHit() {
+        return DetectionEngine.search("10.0.", tableRows);
+    }
+
+    @Benchmark
+    public List<IpSnapshot> searchMiss() {
+        return DetectionEngine.search("192.168.", tableRows);
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.jmh;
+
+import org.example.core.PacketConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/** The tcpdump line parse on its own, and parse plus per-IP count (PacketConsumer.countLine). */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+    @Param({"1000", "100000"})
+    int sources;
+
+    String[] lines;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int i;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Fixtures.resetSharedData();
+        lines = Fixtures.tcpdumpLines(1 << 16, sources);
+    }
+
+    @Benchmark
+    public String sourceIp(Cursor c) {
+        return PacketConsumer.sourceIp(lines[c.i++ & (lines.length - 1)]);
+    }
+
+    @Benchmark
+    public void countLine(Cursor c) {
+        PacketConsumer.countLine(lines[c.i++ & (lines.length - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void countLine4Threads(Cursor c) {
+        PacketConsumer.countLine(lines[c.i++ & (lines.length - 1)]);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.jmh;
+
+import org.example.core.TrafficStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** TrafficStats.record and stddev on a full 60-sample window, per thread and shared. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrafficStatsBenchmark {
+    @State(Scope.Thread)
+    public static class Own {
+        TrafficStats stats = new TrafficStats();
+        double v;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            for (int i = 0; i < 60; i++) stats.record(i % 7);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        TrafficStats stats = new TrafficStats();
+
+        @Setup(Level.Trial)
+        public void fill() {
+            for (int i = 0; i < 60; i++) stats.record(i % 7);
+        }
+    }
+
+    @Benchmark
+    public void record(Own s) {
+        s.stats.record(s.v++ % 100);
+    }
+
+    @Benchmark
+    public double stddev(Own s) {
+        return s.stats.stddev();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordShared4Threads(Shared s) {
+        s.stats.record(7);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.core.DetectionEngine;
+import org.example.core.HttpServerStarter;
+import org.example.core.PacketCapture;
+import org.example.core.PacketConsumer;
+import org.example.core.ServerConfig;
+import org.example.core.SharedData;
+import org.example.util.ProcessStats;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs capture, consumer, HTTP server and detection without Swing.
+ *   java org.example.HeadlessMain [--config=server.properties] [--key=value ...] [--status-sec=N]
+ * Settings are listed on {@link ServerConfig}; {@code --capture=false} skips tcpdump
+ * and {@code --captureSource=synthetic} replaces it with generated lines (no sudo
+ * needed either way). Prints startup time, then a status line with RSS every N seconds.
+ */
+public class HeadlessMain {
+    public static void main(String[] args) throws Exception {
+        int statusSec = 60;
+        String[] settings = Arrays.stream(args)
+                .filter(a -> !a.startsWith("--status-sec="))
+                .toArray(String[]::new);
+        for (String a : args) {
+            if (a.startsWith("--status-sec=")) statusSec = Integer.parseInt(a.substring(13));
+        }
+        List<String> rest = ServerConfig.apply(settings);
+        rest.remove("--headless");
+        if (!rest.isEmpty()) throw new IllegalArgumentException("Unrecognized arguments: " + rest);
+        run(statusSec);
+    }
+
+    static void run(int statusSec) throws Exception {
+        if (SharedData.captureEnabled) {
+            PacketCapture.startPacketCapture();
+            PacketConsumer.startPacketConsumer();
+        }
+        HttpServer server = HttpServerStarter.startHttpServer();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> HttpServerStarter.stopHttpServer(server)));
+        SharedData.detection.start();
+
+        System.out.printf("Headless server ready in %d ms on port %d (executor=%s, tick=%d ms, capture=%s), %s%n",
+                ProcessStats.uptimeMillis(), SharedData.httpPort, SharedData.executorMode,
+                SharedData.tickMs, SharedData.captureEnabled ? "on" : "off", ProcessStats.memorySummary());
+
+        while (true) {
+            Thread.sleep(statusSec * 1000L);
+            DetectionEngine.Tick t = SharedData.detection.getLastTick();
+            System.out.printf("Status: inbound=%.0f/s served=%.0f/s blocked=%d tracked=%d attack=%s %s%n",
+                    t == null ? 0 : t.perSecond(t.inbound), t == null ? 0 : t.perSecond(t.served),
+                    SharedData.blockedIPs.size(), SharedData.attemptsByIp.size(),
+                    t != null && t.attack, ProcessStats.memorySummary());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example;
+
+import org.example.load.AttackProfile;
+import org.example.load.LoadGenerator;
+import org.example.load.LoadReport;
+import org.example.load.ProfileRunner;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Headless load generator for scripted detector regression runs.
+ *   java org.example.LoadMain --profile=attack-profile.properties [--target=URL] [--status-sec=N]
+ * Plays the profile's phases in order (see {@link AttackProfile}), prints a
+ * status line every N seconds and a per-group latency and outcome table at the end.
+ */
+public class LoadMain {
+    public static void main(String[] args) throws Exception {
+        String profileFile = null, target = null;
+        int statusSec = 5;
+        for (String a : args) {
+            if (a.startsWith("--profile="))         profileFile = a.substring(10);
+            else if (a.startsWith("--target="))     target      = a.substring(9);
+            else if (a.startsWith("--status-sec=")) statusSec   = Integer.parseInt(a.substring(13));
+            else throw new IllegalArgumentException("Unrecognized argument: " + a);
+        }
+        if (profileFile == null) {
+            System.err.println("Usage: LoadMain --profile=FILE [--target=URL] [--status-sec=N]");
+            System.exit(2);
+        }
+
+        AttackProfile profile = AttackProfile.load(Path.of(profileFile));
+        URI uri = URI.create(target != null ? target : profile.target);
+        System.out.printf("Load profile %s: %d phases, %d s, target %s%n",
+                profileFile, profile.phases.size(), profile.totalSeconds(), uri);
+
+        ProfileRunner runner = new ProfileRunner(profile, uri);
+        Runtime.getRuntime().addShutdownHook(new Thread(runner::stop));
+        long start = System.currentTimeMillis();
+        runner.run(line -> System.out.printf("[%5.1f s] %s%n",
+                (System.currentTimeMillis() - start) / 1000.0, line), statusSec * 1000L);
+
+        System.out.println();
+        System.out.print(LoadReport.latencyTable(runner.getGroups()));
+        System.out.printf("%n%-12s | %-10s | %-10s | %-10s | %-10s | %-10s | %-10s%n",
+                "Group", "Sent", "Served", "403", "429/503", "Timeouts", "Errors");
+        System.out.println("-".repeat(86));
+        for (LoadGenerator.Group g : runner.getGroups()) {
+            System.out.printf("%-12s | %-10d | %-10d | %-10d | %-10d | %-10d | %-10d%n", g.name, g.sent.sum(),
+                    g.served.sum(), g.forbidden.sum(), g.limited.sum(), g.timeouts.sum(), g.errors.sum());
+        }
+        System.exit(0);
+    }
+}
@@ -3,19 +3,33 @@ package org.example;
 import javax.swing.JFrame;
 import javax.swing.JTabbedPane;
 import javax.swing.SwingUtilities;
+import java.awt.GraphicsEnvironment;
+import java.util.List;
 
 import org.example.core.PacketCapture;
 import org.example.core.PacketConsumer;
 import org.example.core.HttpServerStarter;
+import org.example.core.ServerConfig;
 import org.example.core.SharedData;
 import org.example.ui.AttackSimulatorPanel;
 import org.example.ui.MonitoringPanel;
 import org.example.ui.FirewallLogPanel;
+import org.example.util.ProcessStats;
 
 public class Main {
     public static void main(String[] args) throws Exception {
-        PacketCapture.startPacketCapture();
-        PacketConsumer.startPacketConsumer();
+        // Same settings as HeadlessMain; --headless (or no display) skips Swing entirely
+        if (GraphicsEnvironment.isHeadless() || List.of(args).contains("--headless")) {
+            HeadlessMain.main(args);
+            return;
+        }
+        List<String> rest = ServerConfig.apply(args);
+        if (!rest.isEmpty()) throw new IllegalArgumentException("Unrecognized arguments: " + rest);
+
+        if (SharedData.captureEnabled) {
+            PacketCapture.startPacketCapture();
+            PacketConsumer.startPacketConsumer();
+        }
         HttpServerStarter.startHttpServer();
 
         SwingUtilities.invokeLater(() -> {
@@ -38,6 +52,10 @@ public class Main {
             frame.add(tabs);
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
+
+            SharedData.detection.start();
+            System.out.printf("Dashboard ready in %d ms, %s%n",
+                    ProcessStats.uptimeMillis(), ProcessStats.memorySummary());
         });
     }
 }
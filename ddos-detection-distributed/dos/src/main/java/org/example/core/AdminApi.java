@@ -0,0 +1,275 @@
+package org.example.core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Operator REST endpoints for live blocklist and threshold management.
+ *
+ *   GET    /admin/blocks              monitor blocks, manual IPs and CIDRs
+ *   POST   /admin/blocks              add entries (body: IPv4s/CIDRs separated by newlines, commas or spaces)
+ *   DELETE /admin/blocks              remove entries (same body; also lifts monitor blocks)
+ *   GET    /admin/thresholds          current thresholds
+ *   PUT    /admin/thresholds          update thresholds (body or query: key=value&...)
+ *   GET    /admin/ip?addr=1.2.3.4     per-IP counters, baseline and block state
+ *   GET    /admin/pipeline            per-stage capture -> decision latency of traced lines
+ *   DELETE /admin/pipeline            clear the pipeline latency histograms
+ *
+ * Blocklist writes are batched into a single snapshot swap, so a 100K-line
+ * POST never makes the request path wait. If {@link SharedData#adminToken}
+ * is set, requests must carry it in X-Admin-Token; if not, only loopback
+ * clients are served. The endpoints are only mounted on the admin listener,
+ * never on the protected port.
+ */
+public class AdminApi {
+    private static final List<String> JSON = List.of("application/json; charset=utf-8");
+
+    public static final HttpHandler blocks = exchange -> handle(exchange, () -> {
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                Map<String, Object> out = new LinkedHashMap<>();
+                out.put("monitor", new TreeSet<>(SharedData.blockedIPs));
+                out.put("manual",  new TreeSet<>(SharedData.blocklist.exactEntries()));
+                out.put("cidr",    SharedData.blocklist.cidrEntries());
+                send(exchange, 200, out);
+                break;
+            case "POST": {
+                List<String> entries = entries(exchange);
+                int added = SharedData.blocklist.addAll(entries);
+                EventStream.event("block", describe(entries), 0);
+                SharedData.logFirewallEvent("Admin blocked " + added + " entr" + (added == 1 ? "y" : "ies"));
+                send(exchange, 200, Map.of("added", added, "size", SharedData.blocklist.size()));
+                break;
+            }
+            case "DELETE": {
+                List<String> entries = entries(exchange);
+                int removed = SharedData.blocklist.removeAll(entries);
+                for (String ip : entries) {
+                    if (SharedData.blockedIPs.remove(ip)) {
+                        SharedData.cooldownByIp.remove(ip);
+                        SharedData.blockLatency.onUnblocked(ip);
+                        SharedData.pipelineTrace.onUnblocked(ip);
+                        removed++;
+                    }
+                }
+                EventStream.event("unblock", describe(entries), 0);
+                SharedData.logFirewallEvent("Admin unblocked " + removed + " entr" + (removed == 1 ? "y" : "ies"));
+                send(exchange, 200, Map.of("removed", removed, "size", SharedData.blocklist.size()));
+                break;
+            }
+            default:
+                sendError(exchange, 405, "Use GET, POST or DELETE");
+        }
+    });
+
+    public static final HttpHandler thresholds = exchange -> handle(exchange, () -> {
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                send(exchange, 200, SharedData.thresholds.get().toMap());
+                break;
+            case "PUT":
+            case "POST":
+                Map<String, String> params = params(exchange.getRequestURI().getRawQuery());
+                params.putAll(params(readBody(exchange)));
+                // One swap: a bad key changes nothing, and no tick sees half the update
+                Thresholds applied = SharedData.thresholds.updateAndGet(t -> t.with(params));
+                SharedData.logFirewallEvent("Admin updated thresholds " + params);
+                send(exchange, 200, applied.toMap());
+                break;
+            default:
+                sendError(exchange, 405, "Use GET or PUT");
+        }
+    });
+
+    public static final HttpHandler ip = exchange -> handle(exchange, () -> {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendError(exchange, 405, "Use GET");
+            return;
+        }
+        String addr = params(exchange.getRequestURI().getRawQuery()).get("addr");
+        if (addr == null || addr.isEmpty()) {
+            sendError(exchange, 400, "Missing addr parameter");
+            return;
+        }
+        TrafficStats stats = SharedData.statsByIp.get(addr);
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("ip",             addr);
+        out.put("attempts",       count(SharedData.attemptsByIp.get(addr)));
+        out.put("served",         count(SharedData.servedByIp.get(addr)));
+        out.put("lastRate",       stats == null ? 0.0 : stats.last());
+        out.put("mean",           stats == null ? 0.0 : stats.mean());
+        out.put("stddev",         stats == null ? 0.0 : stats.stddev());
+        out.put("blockedMonitor", SharedData.blockedIPs.contains(addr));
+        out.put("blockedManual",  SharedData.blocklist.contains(addr));
+        out.put("cooldownTicks",  SharedData.cooldownByIp.getOrDefault(addr, 0));
+        send(exchange, 200, out);
+    });
+
+    public static final HttpHandler pipeline = exchange -> handle(exchange, () -> {
+        switch (exchange.getRequestMethod()) {
+            case "GET":
+                send(exchange, 200, SharedData.pipelineTrace.toMap());
+                break;
+            case "DELETE":
+                SharedData.pipelineTrace.reset();
+                send(exchange, 200, SharedData.pipelineTrace.toMap());
+                break;
+            default:
+                sendError(exchange, 405, "Use GET or DELETE");
+        }
+    });
+
+    public static void register(HttpServer server) {
+        server.createContext("/admin/blocks",     blocks);
+        server.createContext("/admin/thresholds", thresholds);
+        server.createContext("/admin/ip",         ip);
+        server.createContext("/admin/pipeline",   pipeline);
+    }
+
+    private interface Action {
+        void run() throws IOException;
+    }
+
+    private static void handle(HttpExchange exchange, Action action) throws IOException {
+        try {
+            if (!authorized(exchange)) {
+                sendError(exchange, 401, SharedData.adminToken == null
+                        ? "Set adminToken to use the admin API remotely" : "Missing or wrong X-Admin-Token");
+                return;
+            }
+            action.run();
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Without a token only local clients get in, whatever adminBind is
+    private static boolean authorized(HttpExchange exchange) {
+        return authorized(exchange.getRemoteAddress().getAddress(),
+                          exchange.getRequestHeaders().getFirst("X-Admin-Token"));
+    }
+
+    static boolean authorized(InetAddress remote, String given) {
+        String token = SharedData.adminToken;
+        if (token == null) return remote.isLoopbackAddress();
+        return given != null && MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), given.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> entries(HttpExchange exchange) throws IOException {
+        List<String> out = new ArrayList<>();
+        String q = params(exchange.getRequestURI().getRawQuery()).get("ip");
+        if (q != null) out.add(q);
+        for (String e : readBody(exchange).split("[\\s,]+")) {
+            if (!e.isEmpty()) out.add(e);
+        }
+        if (out.isEmpty()) throw new IllegalArgumentException("No entries given");
+        return out;
+    }
+
+    // Bulk requests become one stream event instead of one per entry
+    private static String describe(List<String> entries) {
+        return entries.size() == 1 ? entries.get(0) : entries.size() + " entries";
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> params(String raw) {
+        Map<String, String> out = new LinkedHashMap<>();
+        if (raw == null || raw.isBlank()) return out;
+        for (String pair : raw.trim().split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static long count(AtomicLong c) {
+        return c == null ? 0 : c.get();
+    }
+
+    private static void sendError(HttpExchange exchange, int code, String message) throws IOException {
+        send(exchange, code, Map.of("error", message == null ? "Bad request" : message));
+    }
+
+    private static void send(HttpExchange exchange, int code, Map<String, ?> body) throws IOException {
+        byte[] bytes = toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().put("Content-type", JSON);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    static String toJson(Object v) {
+        StringBuilder sb = new StringBuilder();
+        appendJson(sb, v);
+        return sb.toString();
+    }
+
+    private static void appendJson(StringBuilder sb, Object v) {
+        if (v instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) v).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                appendString(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                appendJson(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (v instanceof Iterable) {
+            sb.append('[');
+            boolean first = true;
+            for (Object o : (Iterable<?>) v) {
+                if (!first) sb.append(',');
+                first = false;
+                appendJson(sb, o);
+            }
+            sb.append(']');
+        } else if (v instanceof Double) {
+            double d = (Double) v;
+            sb.append(Double.isFinite(d) ? String.format(Locale.ROOT, "%.3f", d) : "0");
+        } else if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+        } else {
+            appendString(sb, String.valueOf(v));
+        }
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        sb.append('"');
+    }
+}
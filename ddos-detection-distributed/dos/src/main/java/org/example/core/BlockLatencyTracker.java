@@ -0,0 +1,144 @@
+package org.example.core;
+
+import org.example.util.LatencyHistogram;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures how long the pipeline takes to react to an offending IP:
+ * first-over-threshold -> block decision (time-to-detect) and
+ * block decision -> first enforced 403 (time-to-enforce).
+ */
+public class BlockLatencyTracker {
+    private static final int MAX_EVENTS = 10_000;
+    private static final DateTimeFormatter FILE_TS_FMT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+
+    public static class BlockEvent {
+        public final String ip;
+        public final String decidedAt;
+        public final long   firstOverNs;
+        public final long   decisionNs;
+        public volatile long enforcedNs;
+
+        BlockEvent(String ip, long firstOverNs, long decisionNs) {
+            this.ip          = ip;
+            this.decidedAt   = LocalDateTime.now().format(SharedData.LOG_TS_FMT);
+            this.firstOverNs = firstOverNs;
+            this.decisionNs  = decisionNs;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Long>       firstOver = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, BlockEvent> pending   = new ConcurrentHashMap<>();
+    private final ArrayDeque<BlockEvent>                events    = new ArrayDeque<>();
+    private volatile long windowStartNs = System.nanoTime();
+    private long lastTickNs = windowStartNs;
+
+    public final LatencyHistogram detectLatency  = new LatencyHistogram();
+    public final LatencyHistogram enforceLatency = new LatencyHistogram();
+    public final LatencyHistogram blockLatency   = new LatencyHistogram();
+
+    /** Called on every counted attempt with the IP's running total. */
+    public void onAttempt(String ip, long total, int hardLimit) {
+        long base = SharedData.lastTickByIp.getOrDefault(ip, 0L);
+        if (total - base == hardLimit + 1L) {
+            firstOver.putIfAbsent(ip, System.nanoTime());
+        }
+    }
+
+    /**
+     * Marks the start of a monitor tick. A block that fires without crossing the
+     * hard limit (mean + 2*sd rule) is timed from the start of the window it saw.
+     */
+    public void onTickStart() {
+        long now = System.nanoTime();
+        windowStartNs = lastTickNs;
+        lastTickNs    = now;
+    }
+
+    public void onBlocked(String ip) {
+        long now   = System.nanoTime();
+        Long first = firstOver.remove(ip);
+        BlockEvent ev = new BlockEvent(ip, first != null ? first : windowStartNs, now);
+        detectLatency.record(ev.decisionNs - ev.firstOverNs);
+        pending.put(ip, ev);
+        synchronized (events) {
+            if (events.size() == MAX_EVENTS) events.removeFirst();
+            events.addLast(ev);
+        }
+    }
+
+    /** Called for each 403; only the first one after a block is recorded. */
+    public void onRejected(String ip) {
+        if (pending.isEmpty()) return;
+        BlockEvent ev = pending.remove(ip);
+        if (ev == null) return;
+        ev.enforcedNs = System.nanoTime();
+        enforceLatency.record(ev.enforcedNs - ev.decisionNs);
+        blockLatency.record(ev.enforcedNs - ev.firstOverNs);
+    }
+
+    /** Forgets a pending crossing when the IP fell back under the limit without being blocked. */
+    public void onBelowLimit(String ip) {
+        firstOver.remove(ip);
+    }
+
+    public void onUnblocked(String ip) {
+        pending.remove(ip);
+        firstOver.remove(ip);
+    }
+
+    public List<BlockEvent> recentEvents() {
+        synchronized (events) {
+            return new ArrayList<>(events);
+        }
+    }
+
+    /** Writes every retained block event to a timestamped CSV in the working directory. */
+    public String exportCsv() throws IOException {
+        String filename = "block_latency_" + LocalDateTime.now().format(FILE_TS_FMT) + ".csv";
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            writer.write("ip,decided_at,detect_ms,enforce_ms,block_ms\n");
+            for (BlockEvent ev : recentEvents()) {
+                long enforced = ev.enforcedNs;
+                writer.write(ev.ip + "," + ev.decidedAt + ","
+                        + toMs(ev.decisionNs - ev.firstOverNs) + ","
+                        + (enforced == 0 ? "" : toMs(enforced - ev.decisionNs)) + ","
+                        + (enforced == 0 ? "" : toMs(enforced - ev.firstOverNs)) + "\n");
+            }
+            writer.write("\nmetric,count,p50_ms,p99_ms,max_ms\n");
+            writeSummary(writer, "detect",  detectLatency);
+            writeSummary(writer, "enforce", enforceLatency);
+            writeSummary(writer, "block",   blockLatency);
+        }
+        return filename;
+    }
+
+    private static void writeSummary(BufferedWriter writer, String name, LatencyHistogram h)
+            throws IOException {
+        writer.write(name + "," + h.getCount() + ","
+                + toMs(h.getValueAtPercentile(50)) + ","
+                + toMs(h.getValueAtPercentile(99)) + ","
+                + toMs(h.getMax()) + "\n");
+    }
+
+    public static String summary(LatencyHistogram h) {
+        return String.format("%.0f/%.0f/%.0f ms",
+                h.getValueAtPercentile(50) / 1e6,
+                h.getValueAtPercentile(99) / 1e6,
+                h.getMax() / 1e6);
+    }
+
+    private static String toMs(long ns) {
+        return String.format("%.3f", ns / 1e6);
+    }
+}
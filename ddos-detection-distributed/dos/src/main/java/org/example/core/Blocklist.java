@@ -0,0 +1,235 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Operator-managed blocklist of exact IPv4 addresses and CIDR ranges, both
+ * validated by the same parser. Every update builds a new immutable snapshot
+ * and swaps it in with a CAS, so lookups on the request path are a volatile
+ * read plus a hash or binary search, never a lock.
+ * Blocks decided by the monitor stay in {@link SharedData#blockedIPs}.
+ */
+public class Blocklist {
+    private static final class Snapshot {
+        final Set<String> exact;
+        final int[][]     networksByPrefix;   // index = prefix length, sorted masked networks
+        final int[]       prefixLengths;      // non-empty lengths, longest first
+        final int         cidrCount;
+
+        Snapshot(Set<String> exact, int[][] networksByPrefix) {
+            this.exact            = exact;
+            this.networksByPrefix = networksByPrefix;
+            int n = 0, used = 0;
+            for (int[] nets : networksByPrefix) if (nets != null) { n += nets.length; used++; }
+            this.cidrCount     = n;
+            this.prefixLengths = new int[used];
+            for (int len = 0; len <= 32; len++) {
+                if (networksByPrefix[len] != null) prefixLengths[--used] = len;
+            }
+        }
+    }
+
+    private final AtomicReference<Snapshot> current =
+            new AtomicReference<>(new Snapshot(Set.of(), new int[33][]));
+
+    public boolean contains(String ip) {
+        Snapshot s = current.get();
+        if (s.exact.contains(ip)) return true;
+        if (s.cidrCount == 0) return false;
+        long parsed = parseIPv4(ip);
+        if (parsed < 0) return false;
+        int addr = (int) parsed;
+        for (int len : s.prefixLengths) {
+            if (Arrays.binarySearch(s.networksByPrefix[len], addr & mask(len)) >= 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds IPv4 addresses and/or CIDR entries in one swap. Every entry is
+     * validated before anything changes, so a bad entry rejects the whole batch.
+     * @return number of entries accepted.
+     * @throws IllegalArgumentException if an entry is not a dotted IPv4 address or CIDR.
+     */
+    public int addAll(Collection<String> entries) {
+        Parsed add = parse(entries, true);
+        while (true) {
+            Snapshot old = current.get();
+            Set<String> exact = old.exact;
+            if (!add.exact.isEmpty()) {
+                exact = new HashSet<>(old.exact);
+                exact.addAll(add.exact);
+                exact = Collections.unmodifiableSet(exact);
+            }
+            int[][] nets = new int[33][];
+            for (int len = 0; len <= 32; len++) {
+                nets[len] = union(old.networksByPrefix[len], add.networks[len]);
+            }
+            if (current.compareAndSet(old, new Snapshot(exact, nets))) return add.count;
+        }
+    }
+
+    /**
+     * Removes exact IPs and/or CIDR entries in one swap. Exact entries that are
+     * not IPv4 are looked up as given.
+     * @return number of entries removed.
+     * @throws IllegalArgumentException if a CIDR entry is malformed.
+     */
+    public int removeAll(Collection<String> entries) {
+        Parsed remove = parse(entries, false);
+        while (true) {
+            Snapshot old = current.get();
+            Set<String> exact = new HashSet<>(old.exact);
+            int removed = 0;
+            for (String e : remove.exact) {
+                if (exact.remove(e)) removed++;
+            }
+            int[][] nets = new int[33][];
+            for (int len = 0; len <= 32; len++) {
+                int[] before = old.networksByPrefix[len];
+                nets[len] = difference(before, remove.networks[len]);
+                removed += length(before) - length(nets[len]);
+            }
+            if (current.compareAndSet(old, new Snapshot(Collections.unmodifiableSet(exact), nets))) return removed;
+        }
+    }
+
+    public Set<String> exactEntries() {
+        return current.get().exact;
+    }
+
+    public List<String> cidrEntries() {
+        Snapshot s = current.get();
+        List<String> out = new ArrayList<>(s.cidrCount);
+        for (int len = 0; len <= 32; len++) {
+            int[] nets = s.networksByPrefix[len];
+            if (nets == null) continue;
+            for (int n : nets) out.add(formatIPv4(n) + "/" + len);
+        }
+        return out;
+    }
+
+    public int size() {
+        Snapshot s = current.get();
+        return s.exact.size() + s.cidrCount;
+    }
+
+    /** Entries of one request, parsed once outside the CAS loop. */
+    private static final class Parsed {
+        final Set<String> exact    = new HashSet<>();
+        final int[][]     networks = new int[33][];   // sorted, distinct; null if none
+        int count;
+    }
+
+    private static Parsed parse(Collection<String> entries, boolean strict) {
+        Parsed p = new Parsed();
+        int[] nets = new int[entries.size()];
+        int[] lens = new int[entries.size()];
+        int[] perLen = new int[33];
+        int n = 0;
+        for (String e : entries) {
+            String entry = e.trim();
+            if (entry.isEmpty()) continue;
+            int slash = entry.indexOf('/');
+            if (slash < 0) {
+                long addr = parseIPv4(entry);
+                if (addr < 0 && strict) throw new IllegalArgumentException("Not an IPv4 address: " + entry);
+                p.exact.add(addr < 0 ? entry : formatIPv4((int) addr));
+            } else {
+                lens[n] = prefixLength(entry, slash);
+                nets[n] = network(entry, slash);
+                perLen[lens[n]]++;
+                n++;
+            }
+            p.count++;
+        }
+        for (int len = 0; len <= 32; len++) {
+            if (perLen[len] > 0) p.networks[len] = new int[perLen[len]];
+        }
+        int[] fill = new int[33];
+        for (int i = 0; i < n; i++) p.networks[lens[i]][fill[lens[i]]++] = nets[i];
+        for (int len = 0; len <= 32; len++) {
+            if (p.networks[len] != null) p.networks[len] = Arrays.stream(p.networks[len]).sorted().distinct().toArray();
+        }
+        return p;
+    }
+
+    // Sorted, distinct union; null when both are empty
+    private static int[] union(int[] a, int[] b) {
+        if (b == null) return a;
+        if (a == null) return b;
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length || j < b.length) {
+            int v = j == b.length || (i < a.length && a[i] <= b[j]) ? a[i++] : b[j++];
+            if (k == 0 || out[k - 1] != v) out[k++] = v;
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    // Entries of a not in b; null when nothing is left
+    private static int[] difference(int[] a, int[] b) {
+        if (a == null || b == null) return a;
+        int[] out = new int[a.length];
+        int k = 0;
+        for (int v : a) {
+            if (Arrays.binarySearch(b, v) < 0) out[k++] = v;
+        }
+        return k == 0 ? null : Arrays.copyOf(out, k);
+    }
+
+    private static int length(int[] a) {
+        return a == null ? 0 : a.length;
+    }
+
+    private static int prefixLength(String entry, int slash) {
+        String digits = entry.substring(slash + 1);
+        if (digits.isEmpty() || digits.length() > 2 || !digits.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Bad prefix length: " + entry);
+        }
+        int len = Integer.parseInt(digits);
+        if (len > 32) throw new IllegalArgumentException("Bad prefix length: " + entry);
+        return len;
+    }
+
+    private static int network(String entry, int slash) {
+        long addr = parseIPv4(entry.substring(0, slash));
+        if (addr < 0) throw new IllegalArgumentException("Bad IPv4 network: " + entry);
+        return (int) addr & mask(prefixLength(entry, slash));
+    }
+
+    private static int mask(int len) {
+        return len == 0 ? 0 : -1 << (32 - len);
+    }
+
+    /** @return the address as an unsigned 32-bit value, or -1 if {@code ip} is not dotted IPv4. */
+    static long parseIPv4(String ip) {
+        long addr = 0;
+        int octet = 0, dots = 0, digits = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = octet * 10 + (c - '0');
+                if (++digits > 3 || octet > 255) return -1;
+            } else if (c == '.' && digits > 0 && dots < 3) {
+                addr = (addr << 8) | octet;
+                octet = 0; digits = 0; dots++;
+            } else {
+                return -1;
+            }
+        }
+        if (dots != 3 || digits == 0) return -1;
+        return (addr << 8) | octet;
+    }
+
+    private static String formatIPv4(int a) {
+        return ((a >>> 24) & 255) + "." + ((a >>> 16) & 255) + "." + ((a >>> 8) & 255) + "." + (a & 255);
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-tick detection loop: turns the running per-IP counters into per-tick
+ * rates, applies the hard-limit / mean+2sd block rule with cooldown, ticks the
+ * entropy detector and publishes an immutable {@link Tick} to listeners (the
+ * Swing monitor, the SSE stream). Runs the same with or without a GUI.
+ */
+public class DetectionEngine {
+    /** One tick's aggregate view. Rates are counts per tick of {@code tickMs}. */
+    public static class Tick {
+        public final long               timestamp;
+        public final int                tickMs;
+        public final long               inbound, served;
+        public final String             topIp;
+        public final long               topRate;
+        public final int                blocked;
+        public final long               distinct;
+        public final double             entropy;
+        public final boolean            attack;
+        public final List<Map.Entry<String, Long>> top;
+        public final List<IpSnapshot>   rows;   // top sources by rate, then blocked ones
+
+        Tick(long timestamp, int tickMs, long inbound, long served, String topIp, long topRate,
+             int blocked, long distinct, double entropy, boolean attack, List<Map.Entry<String, Long>> top,
+             List<IpSnapshot> rows) {
+            this.timestamp = timestamp;
+            this.tickMs    = tickMs;
+            this.inbound   = inbound;
+            this.served    = served;
+            this.topIp     = topIp;
+            this.topRate   = topRate;
+            this.blocked   = blocked;
+            this.distinct  = distinct;
+            this.entropy   = entropy;
+            this.attack    = attack;
+            this.top       = top;
+            this.rows      = rows;
+        }
+
+        /** @return {@code perTick} scaled to a per-second rate. */
+        public double perSecond(long perTick) {
+            return perTick * 1000.0 / tickMs;
+        }
+    }
+
+    private final List<Consumer<Tick>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService sched;
+    private long lastTotalAtt = 0, lastTotalServ = 0;
+    private volatile Tick last;
+
+    public void addListener(Consumer<Tick> listener) {
+        listeners.add(listener);
+    }
+
+    public Tick getLastTick() {
+        return last;
+    }
+
+    public synchronized void start() {
+        if (sched != null) return;
+        sched = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "DetectionTick");
+            t.setDaemon(true);
+            return t;
+        });
+        sched.scheduleAtFixedRate(this::safeTick, SharedData.tickMs, SharedData.tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    // An exception would silently cancel the scheduled task, and detection with it
+    private void safeTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            SharedData.logFirewallEvent("Detection tick failed: " + e);
+        }
+    }
+
+    /** Runs one detection tick on the calling thread. */
+    public void tick() {
+        long currAtt   = SharedData.totalAttempted.get();
+        long deltaAtt  = currAtt - lastTotalAtt;   lastTotalAtt  = currAtt;
+        long currServ  = SharedData.totalServed.get();
+        long deltaServ = currServ - lastTotalServ; lastTotalServ = currServ;
+        Thresholds limits = SharedData.thresholds.get();
+        SharedData.entropyDetector.tick(limits);
+        SharedData.rateLimiter.evictIdle(limits);
+        SharedData.blockLatency.onTickStart();
+        SharedData.pipelineTrace.onTickStart();
+
+        String topIp = null; long max = 0;
+        // The table needs tableRows sources; the event stream may want more, but only while someone listens
+        int topK = EventStream.isActive() ? Math.max(SharedData.sseTopK, SharedData.tableRows) : SharedData.tableRows;
+        PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        Set<String> ips = new HashSet<>(SharedData.attemptsByIp.keySet());
+        for (String ip : ips) {
+            long tot   = SharedData.attemptsByIp.get(ip).get();
+            long prev  = SharedData.lastTickByIp.getOrDefault(ip, 0L);
+            long delta = tot - prev; SharedData.lastTickByIp.put(ip, tot);
+            if (delta > max) { max = delta; topIp = ip; }
+            if (delta > 0 && (top.size() < topK || delta > top.peek().getValue())) {
+                top.add(Map.entry(ip, delta));
+                if (top.size() > topK) top.poll();
+            }
+
+            TrafficStats stats = SharedData.statsByIp.computeIfAbsent(ip, k -> new TrafficStats());
+            double mean  = stats.mean();
+            double sd    = stats.stddev();
+            double upper = mean + 2 * sd;
+            boolean aboveMin  = delta >= limits.minLimit;
+            boolean blockCond = aboveMin && (delta > limits.hardLimit || delta > upper);
+            boolean clearCond = delta <= limits.hardLimit && delta <= upper;
+
+            if (!SharedData.blockedIPs.contains(ip) && blockCond) {
+                SharedData.blockedIPs.add(ip);
+                SharedData.blockLatency.onBlocked(ip);
+                SharedData.pipelineTrace.onBlocked(ip);
+                SharedData.cooldownByIp.remove(ip);
+                SharedData.logFirewallEvent("Blocked " + ip + " (rps=" + delta + ")");
+                EventStream.event("block", ip, delta);
+            } else if (SharedData.blockedIPs.contains(ip)) {
+                int cnt = clearCond ? SharedData.cooldownByIp.getOrDefault(ip, 0) + 1 : 0;
+                if (cnt >= limits.cooldownTicks) {
+                    SharedData.blockedIPs.remove(ip);
+                    SharedData.blockLatency.onUnblocked(ip);
+                    SharedData.pipelineTrace.onUnblocked(ip);
+                    SharedData.cooldownByIp.remove(ip);
+                    SharedData.logFirewallEvent("Unblocked " + ip);
+                    EventStream.event("unblock", ip, delta);
+                } else {
+                    SharedData.cooldownByIp.put(ip, cnt);
+                }
+            } else if (delta <= limits.hardLimit) {
+                SharedData.blockLatency.onBelowLimit(ip);
+            }
+            stats.record(delta);
+        }
+        SharedData.pipelineTrace.onTickEnd();
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(top);
+        sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        List<IpSnapshot> rows = rows(sorted);
+        if (sorted.size() > SharedData.sseTopK) sorted = sorted.subList(0, SharedData.sseTopK);
+        boolean attack = !SharedData.blockedIPs.isEmpty() || SharedData.entropyDetector.isUnderAttack();
+        Tick t = new Tick(System.currentTimeMillis(), SharedData.tickMs, deltaAtt, deltaServ, topIp, max,
+                SharedData.blockedIPs.size(), SharedData.entropyDetector.getLastDistinct(),
+                SharedData.entropyDetector.getLastEntropy(), attack, Collections.unmodifiableList(sorted),
+                Collections.unmodifiableList(rows));
+        last = t;
+        if (EventStream.isActive()) EventStream.publishTick(toMap(t));
+        for (Consumer<Tick> l : listeners) l.accept(t);
+    }
+
+    // Top tableRows sources by rate, then blocked sources that did not make the cut
+    private static List<IpSnapshot> rows(List<Map.Entry<String, Long>> sorted) {
+        int limit = SharedData.tableRows;
+        List<IpSnapshot> rows = new ArrayList<>(Math.min(sorted.size(), limit) + 16);
+        Set<String> seen = new HashSet<>();
+        for (Map.Entry<String, Long> e : sorted) {
+            if (rows.size() == limit) break;
+            rows.add(IpSnapshot.of(e.getKey()));
+            seen.add(e.getKey());
+        }
+        int blocked = 0;
+        for (String ip : SharedData.blockedIPs) {
+            if (blocked++ == limit) break;
+            if (!seen.contains(ip)) rows.add(IpSnapshot.of(ip));
+        }
+        return rows;
+    }
+
+    /** @return Up to {@code limit} tracked IPs containing {@code text}. */
+    public static List<IpSnapshot> search(String text, int limit) {
+        List<IpSnapshot> out = new ArrayList<>();
+        for (String ip : SharedData.attemptsByIp.keySet()) {
+            if (ip.contains(text)) {
+                out.add(IpSnapshot.of(ip));
+                if (out.size() == limit) break;
+            }
+        }
+        return out;
+    }
+
+    private static Map<String, Object> toMap(Tick t) {
+        List<Map<String, Object>> top = new ArrayList<>(t.top.size());
+        for (Map.Entry<String, Long> e : t.top) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("ip",   e.getKey());
+            m.put("rate", e.getValue());
+            top.add(m);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("ts",      t.timestamp);
+        out.put("tickMs",  t.tickMs);
+        out.put("inbound", t.inbound);
+        out.put("served",  t.served);
+        out.put("blocked", t.blocked);
+        out.put("sources", t.distinct);
+        out.put("entropy", t.entropy);
+        out.put("attack",  t.attack);
+        out.put("top",     top);
+        return out;
+    }
+}
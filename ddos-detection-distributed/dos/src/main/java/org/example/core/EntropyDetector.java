@@ -0,0 +1,162 @@
+package org.example.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Global detector for floods spread thinly across many sources.
+ * Per tick it keeps a bucketed estimate of source-IP entropy and a
+ * HyperLogLog estimate of distinct sources. Memory and per-request cost
+ * are fixed no matter how many distinct IPs arrive.
+ */
+public class EntropyDetector {
+    public enum SheddingMode { NONE, RATE, PREFIX }
+
+    private static final int    ENTROPY_BUCKETS   = 1024;
+    private static final int    PREFIX_BUCKETS    = 4096;
+    private static final int    HLL_P             = 12;
+    private static final int    HLL_M             = 1 << HLL_P;
+    private static final double HLL_ALPHA         = 0.7213 / (1 + 1.079 / HLL_M);
+    private static final int    WARMUP_TICKS      = 10;
+    private static final double ENTROPY_MIN_SHIFT = 0.10;
+    private static final int    PREFIX_FACTOR     = 4;
+
+    private final AtomicIntegerArray entropyBuckets = new AtomicIntegerArray(ENTROPY_BUCKETS);
+    private final AtomicIntegerArray prefixBuckets  = new AtomicIntegerArray(PREFIX_BUCKETS);
+    private final AtomicIntegerArray hllRegisters   = new AtomicIntegerArray(HLL_M);
+
+    private final TrafficStats entropyBaseline  = new TrafficStats();
+    private final TrafficStats distinctBaseline = new TrafficStats();
+    private final TrafficStats rateBaseline     = new TrafficStats();
+    private long ticks = 0;
+
+    private volatile boolean      underAttack     = false;
+    private volatile double       lastEntropy     = 0;
+    private volatile long         lastDistinct    = 0;
+    private volatile double       admitRatio      = 1.0;
+    private volatile boolean[]    shedPrefixes    = new boolean[PREFIX_BUCKETS];
+
+    /** Records one request from {@code ip}. Safe to call from any thread. */
+    public void observe(String ip) {
+        long h = mix(ip.hashCode());
+        entropyBuckets.incrementAndGet((int) (h & (ENTROPY_BUCKETS - 1)));
+        prefixBuckets.incrementAndGet(prefixBucket(ip));
+
+        int idx  = (int) (h >>> (64 - HLL_P));
+        int rank = Long.numberOfLeadingZeros((h << HLL_P) | (1L << (HLL_P - 1))) + 1;
+        int cur;
+        while (rank > (cur = hllRegisters.get(idx))) {
+            if (hllRegisters.compareAndSet(idx, cur, rank)) break;
+        }
+    }
+
+    /** @return true if a request from {@code ip} should be shed while under attack. */
+    public boolean shouldShed(String ip, SheddingMode mode) {
+        if (!underAttack) return false;
+        switch (mode) {
+            case RATE:   return ThreadLocalRandom.current().nextDouble() >= admitRatio;
+            case PREFIX: return shedPrefixes[prefixBucket(ip)];
+            default:     return false;
+        }
+    }
+
+    /**
+     * Closes the current tick: computes entropy and cardinality, updates the
+     * attack state and shedding decisions, then resets the sketches.
+     */
+    public synchronized void tick(Thresholds limits) {
+        long total = 0;
+        int[] counts = new int[ENTROPY_BUCKETS];
+        for (int i = 0; i < ENTROPY_BUCKETS; i++) {
+            counts[i] = entropyBuckets.getAndSet(i, 0);
+            total += counts[i];
+        }
+        double entropy = 0;
+        if (total > 0) {
+            for (int c : counts) {
+                if (c == 0) continue;
+                double p = (double) c / total;
+                entropy -= p * Math.log(p);
+            }
+            entropy /= Math.log(ENTROPY_BUCKETS);
+        }
+
+        double sum = 0; int zeros = 0;
+        for (int i = 0; i < HLL_M; i++) {
+            int r = hllRegisters.getAndSet(i, 0);
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double estimate = HLL_ALPHA * HLL_M * HLL_M / sum;
+        if (estimate <= 2.5 * HLL_M && zeros > 0) {
+            estimate = HLL_M * Math.log((double) HLL_M / zeros);
+        }
+        long distinct = Math.round(estimate);
+
+        int[] prefixes = new int[PREFIX_BUCKETS];
+        long usedPrefixes = 0;
+        for (int i = 0; i < PREFIX_BUCKETS; i++) {
+            prefixes[i] = prefixBuckets.getAndSet(i, 0);
+            if (prefixes[i] > 0) usedPrefixes++;
+        }
+
+        boolean attack = false;
+        if (ticks >= WARMUP_TICKS && total > 0) {
+            double hMean = entropyBaseline.mean();
+            double dMean = distinctBaseline.mean();
+            boolean entropyShift = Math.abs(entropy - hMean)
+                    > Math.max(3 * entropyBaseline.stddev(), ENTROPY_MIN_SHIFT);
+            boolean distinctSpike = distinct > Math.max(dMean + 3 * distinctBaseline.stddev(), 2 * dMean);
+            attack = distinct >= limits.minDistinct && (entropyShift || distinctSpike);
+        }
+
+        if (attack) {
+            double baseRate = rateBaseline.mean();
+            admitRatio = baseRate > 0 ? Math.min(1.0, baseRate / total) : 1.0;
+            boolean[] shed = new boolean[PREFIX_BUCKETS];
+            if (usedPrefixes > 0) {
+                long limit = Math.max(limits.hardLimit, PREFIX_FACTOR * total / usedPrefixes);
+                for (int i = 0; i < PREFIX_BUCKETS; i++) shed[i] = prefixes[i] > limit;
+            }
+            shedPrefixes = shed;
+        } else {
+            entropyBaseline.record(entropy);
+            distinctBaseline.record(distinct);
+            rateBaseline.record(total);
+            admitRatio = 1.0;
+            ticks++;
+        }
+
+        if (attack != underAttack) {
+            SharedData.logFirewallEvent(attack
+                    ? String.format("Distributed flood detected (sources~%d, entropy=%.2f, shedding=%s)",
+                                    distinct, entropy, limits.shedding)
+                    : "Distributed flood subsided");
+        }
+        lastEntropy  = entropy;
+        lastDistinct = distinct;
+        underAttack  = attack;
+    }
+
+    public boolean      isUnderAttack()   { return underAttack;  }
+    public double       getLastEntropy()  { return lastEntropy;  }
+    public long         getLastDistinct() { return lastDistinct; }
+
+    private static int prefixBucket(String ip) {
+        int end = ip.lastIndexOf('.');
+        if (end <= 0) end = ip.length();
+        int h = 0;
+        for (int i = 0; i < end; i++) h = 31 * h + ip.charAt(i);
+        return (int) (mix(h) & (PREFIX_BUCKETS - 1));
+    }
+
+    // MurmurHash3 fmix64 finalizer: spreads String.hashCode over 64 bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,279 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events feed of per-tick rates, top sources and block/unblock
+ * events on {@link SharedData#eventsPort}.
+ *
+ * Each tick is serialized once into a single read-only frame; every subscriber
+ * gets a duplicate view of the same bytes and a selector thread writes them
+ * with non-blocking writes. A subscriber that falls more than
+ * {@link SharedData#sseMaxLagFrames} frames behind is disconnected instead of
+ * buffered, so the tick thread never waits on a dashboard.
+ *
+ * The stream listens on {@link SharedData#adminBind} and follows the admin API's
+ * rules: without {@link SharedData#adminToken} only loopback clients may
+ * subscribe; with it every request must carry the token, as an
+ * {@code X-Admin-Token} header or, for browser EventSource clients that cannot
+ * set headers, a {@code token} query parameter.
+ */
+public class EventStream implements Runnable {
+    private static final int MAX_REQUEST = 4096;
+    private static final byte[] HEADERS = ("HTTP/1.1 200 OK\r\n"
+            + "Content-Type: text/event-stream\r\n"
+            + "Cache-Control: no-cache\r\n"
+            + "Connection: keep-alive\r\n\r\n"
+            + "retry: 2000\n\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NOT_FOUND = ("HTTP/1.1 404 Not Found\r\n"
+            + "Content-Length: 0\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] UNAUTHORIZED = ("HTTP/1.1 401 Unauthorized\r\n"
+            + "Content-Length: 0\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    public static final AtomicLong subscribers = new AtomicLong(0);
+    public static final AtomicLong dropped     = new AtomicLong(0);
+    public static final AtomicLong frames      = new AtomicLong(0);
+    public static volatile int     lastFrameBytes;
+
+    private static volatile EventStream instance;
+    // Block/unblock events waiting for the next tick frame
+    private static final ConcurrentLinkedQueue<String> pendingEvents = new ConcurrentLinkedQueue<>();
+
+    private final Selector            selector;
+    private final ServerSocketChannel listener;
+    // Frames published since the selector thread last woke up
+    private final ConcurrentLinkedQueue<ByteBuffer> published = new ConcurrentLinkedQueue<>();
+
+    private EventStream(int port) throws IOException {
+        this.selector = Selector.open();
+        this.listener = ServerSocketChannel.open();
+        listener.bind(new InetSocketAddress(HttpServerStarter.adminBindAddress(), port));
+        listener.configureBlocking(false);
+        listener.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /** @return The bound port (useful when {@code port} is 0). */
+    public static synchronized int start(int port) throws IOException {
+        if (instance == null) {
+            EventStream es = new EventStream(port);
+            Thread t = new Thread(es, "EventStream");
+            t.setDaemon(true);
+            t.start();
+            instance = es;
+        }
+        return ((InetSocketAddress) instance.listener.getLocalAddress()).getPort();
+    }
+
+    /** @return true if anyone is listening, so callers can skip building tick data. */
+    public static boolean isActive() {
+        return instance != null && subscribers.get() > 0;
+    }
+
+    /** Queues a block/unblock event; it goes out with the next tick frame. */
+    public static void event(String type, String ip, long rate) {
+        if (!isActive()) return;
+        Map<String, Object> e = new LinkedHashMap<>();
+        e.put("ts",   System.currentTimeMillis());
+        e.put("ip",   ip);
+        e.put("rate", rate);
+        pendingEvents.add("event: " + type + "\ndata: " + AdminApi.toJson(e) + "\n\n");
+    }
+
+    /** Serializes one tick (plus queued events) into the shared frame and wakes the writer. */
+    public static void publishTick(Map<String, Object> tick) {
+        EventStream es = instance;
+        if (es == null) return;
+        if (subscribers.get() == 0) {
+            pendingEvents.clear();
+            return;
+        }
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("event: tick\ndata: ").append(AdminApi.toJson(tick)).append("\n\n");
+        String e;
+        while ((e = pendingEvents.poll()) != null) sb.append(e);
+        byte[] frame = sb.toString().getBytes(StandardCharsets.UTF_8);
+        lastFrameBytes = frame.length;
+        es.published.add(ByteBuffer.wrap(frame).asReadOnlyBuffer());
+        frames.incrementAndGet();
+        es.selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                selector.select();
+                fanOut();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        ((Subscriber) key.attachment()).handle(key);
+                    }
+                }
+            } catch (IOException e) {
+                SharedData.logFirewallEvent("Event stream error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fanOut() {
+        ByteBuffer frame;
+        while ((frame = published.poll()) != null) {
+            for (SelectionKey key : selector.keys()) {
+                if (key.isValid() && key.attachment() instanceof Subscriber) {
+                    ((Subscriber) key.attachment()).offer(key, frame);
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client;
+        while ((client = listener.accept()) != null) {
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            client.register(selector, SelectionKey.OP_READ, new Subscriber(client));
+        }
+    }
+
+    private static class Subscriber {
+        final SocketChannel           channel;
+        final ArrayDeque<ByteBuffer>  queue   = new ArrayDeque<>();
+        ByteBuffer                    request = ByteBuffer.allocate(MAX_REQUEST);
+        boolean                       streaming, closeWhenDrained;
+
+        Subscriber(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if (key.isReadable()) read(key);
+                if (key.isValid() && key.isWritable()) flush(key);
+            } catch (IOException | CancelledKeyException e) {
+                close(key);
+            }
+        }
+
+        // Reads the request head once; afterwards reads only to notice the client leaving.
+        private void read(SelectionKey key) throws IOException {
+            if (streaming) {
+                ByteBuffer sink = ByteBuffer.allocate(256);
+                if (channel.read(sink) < 0) close(key);
+                return;
+            }
+            if (request == null) return;
+            if (channel.read(request) < 0 || !request.hasRemaining()) {
+                close(key);
+                return;
+            }
+            String head = new String(request.array(), 0, request.position(), StandardCharsets.US_ASCII);
+            if (!head.contains("\r\n\r\n")) return;
+            request = null;
+            if (!head.startsWith("GET /events ") && !head.startsWith("GET /events?")) {
+                queue.add(ByteBuffer.wrap(NOT_FOUND));
+                closeWhenDrained = true;
+            } else if (!AdminApi.authorized(((InetSocketAddress) channel.getRemoteAddress()).getAddress(),
+                                            token(head))) {
+                queue.add(ByteBuffer.wrap(UNAUTHORIZED));
+                closeWhenDrained = true;
+            } else {
+                streaming = true;
+                subscribers.incrementAndGet();
+                queue.add(ByteBuffer.wrap(HEADERS));
+            }
+            flush(key);
+        }
+
+        // X-Admin-Token header, else ?token= on the request line
+        private static String token(String head) {
+            String[] lines = head.split("\r\n");
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0 && lines[i].substring(0, colon).trim().equalsIgnoreCase("X-Admin-Token")) {
+                    return lines[i].substring(colon + 1).trim();
+                }
+            }
+            String target = lines[0].split(" ")[1];
+            int q = target.indexOf('?');
+            if (q < 0) return null;
+            for (String kv : target.substring(q + 1).split("&")) {
+                if (!kv.startsWith("token=")) continue;
+                try {
+                    return URLDecoder.decode(kv.substring(6), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        void offer(SelectionKey key, ByteBuffer frame) {
+            if (!streaming) return;
+            if (queue.size() > SharedData.sseMaxLagFrames) {
+                dropped.incrementAndGet();
+                try {
+                    // Reset rather than FIN so the kernel discards what the client never read
+                    channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+                } catch (IOException ignored) {}
+                close(key);
+                return;
+            }
+            queue.add(frame.duplicate());
+            try {
+                flush(key);
+            } catch (IOException | CancelledKeyException e) {
+                close(key);
+            }
+        }
+
+        void flush(SelectionKey key) throws IOException {
+            ByteBuffer head;
+            while ((head = queue.peek()) != null) {
+                channel.write(head);
+                if (head.hasRemaining()) break;
+                queue.poll();
+            }
+            if (queue.isEmpty()) {
+                if (closeWhenDrained) {
+                    close(key);
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+            } else {
+                key.interestOps(closeWhenDrained ? SelectionKey.OP_WRITE
+                                                 : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void close(SelectionKey key) {
+            if (streaming) {
+                streaming = false;
+                subscribers.decrementAndGet();
+            }
+            key.cancel();
+            try { channel.close(); } catch (IOException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.core;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Pre-encoded responses for the handler. Bodies and header values are built
+ * once; a request only copies references into the exchange's header map.
+ * Served responses keep the connection alive, rejections of blocked or shed
+ * sources ask the server to close it so attackers don't hold idle slots.
+ */
+public final class HttpResponses {
+    public static final byte[] INDEX_BODY =
+            "<html><body><h1>Welcome to DoS Test Server</h1></body></html>".getBytes(StandardCharsets.UTF_8);
+
+    // Keys in the form Headers normalizes to, values as immutable shared lists
+    private static final String       CONTENT_TYPE = "Content-type";
+    private static final String       LOCATION     = "Location";
+    private static final String       CONNECTION   = "Connection";
+    private static final List<String> HTML_UTF8    = List.of("text/html; charset=UTF-8");
+    private static final List<String> INDEX_PATH   = List.of("/index.html");
+    private static final List<String> CLOSE        = List.of("close");
+
+    private HttpResponses() {}
+
+    public static void index(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().put(CONTENT_TYPE, HTML_UTF8);
+        exchange.sendResponseHeaders(200, INDEX_BODY.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(INDEX_BODY);
+        }
+    }
+
+    public static void redirectToIndex(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().put(LOCATION, INDEX_PATH);
+        sendEmpty(exchange, 302);
+    }
+
+    /** 403 for blocked sources; the connection is not kept alive. */
+    public static void forbidden(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().put(CONNECTION, CLOSE);
+        sendEmpty(exchange, 403);
+    }
+
+    /** 429 for sources over their token bucket; keep-alive is left alone for bursty clients. */
+    public static void rateLimited(HttpExchange exchange) throws IOException {
+        sendEmpty(exchange, 429);
+    }
+
+    /** 503 for requests shed by the global detector; the connection is not kept alive. */
+    public static void shed(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().put(CONNECTION, CLOSE);
+        sendEmpty(exchange, 503);
+    }
+
+    // -1 means no body: the server writes Content-length: 0, and close() drains any request body
+    private static void sendEmpty(HttpExchange exchange, int code) throws IOException {
+        exchange.sendResponseHeaders(code, -1);
+        exchange.close();
+    }
+}
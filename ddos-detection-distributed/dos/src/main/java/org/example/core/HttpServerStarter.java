@@ -3,14 +3,143 @@ package org.example.core;
 import com.sun.net.httpserver.HttpServer;
 
 import java.io.IOException;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 
 public class HttpServerStarter {
-    public static void startHttpServer() throws IOException {
-        HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
+    public enum ExecutorMode { FIXED, VIRTUAL, BOUNDED_VIRTUAL }
+
+    private static volatile NioFrontEnd frontEnd; // null unless nioFrontEnd
+
+    public static HttpServer startHttpServer() throws IOException {
+        return startHttpServer(SharedData.httpPort);
+    }
+
+    public static HttpServer startHttpServer(int port) throws IOException {
+        applyServerProperties();
+        // With the front-end on, the HttpServer only listens on loopback behind it
+        InetSocketAddress bind = SharedData.nioFrontEnd
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), SharedData.internalHttpPort)
+                : new InetSocketAddress(port);
+        HttpServer server = HttpServer.create(bind, SharedData.httpBacklog);
         server.createContext("/", SharedData.handler);
         server.createContext("/index.html", SharedData.handler);
-        server.setExecutor(SharedData.httpExecutor);
+        server.setExecutor(createExecutor(
+                SharedData.executorMode, SharedData.httpWorkers, SharedData.virtualConcurrency));
+        if (SharedData.adminPort > 0) {
+            startAdminServer();
+        }
         server.start();
+        if (SharedData.eventsPort > 0) {
+            EventStream.start(SharedData.eventsPort);
+        }
+        if (SharedData.nioFrontEnd) {
+            frontEnd = NioFrontEnd.start(port, server.getAddress().getPort());
+        }
+        return server;
+    }
+
+    /**
+     * Stops a server from {@link #startHttpServer(int)}, its worker executor and
+     * the front-end relaying to it.
+     */
+    public static void stopHttpServer(HttpServer server) {
+        NioFrontEnd fe = frontEnd;
+        if (fe != null) {
+            frontEnd = null;
+            fe.stop();
+        }
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    /**
+     * Operator endpoints bypass the protected handler (no blocklist, no rate
+     * limit, never counted), so they only ever get their own listener, never
+     * the protected port. Binding it beyond loopback requires an admin token.
+     */
+    private static void startAdminServer() throws IOException {
+        HttpServer admin = HttpServer.create(new InetSocketAddress(adminBindAddress(), SharedData.adminPort), 0);
+        admin.createContext("/metrics", MetricsPublisher.handler);
+        MetricsPublisher.start();
+        AdminApi.register(admin);
+        admin.setExecutor(Executors.newFixedThreadPool(2));
+        admin.start();
+    }
+
+    /** Address for operator listeners (admin API, event stream); refuses a network bind without a token. */
+    static InetAddress adminBindAddress() throws IOException {
+        InetAddress bind = InetAddress.getByName(SharedData.adminBind);
+        if (!bind.isLoopbackAddress() && SharedData.adminToken == null) {
+            throw new IllegalArgumentException(
+                    "adminBind=" + SharedData.adminBind + " is reachable from the network; set adminToken");
+        }
+        return bind;
+    }
+
+    /**
+     * JVM-wide knobs that must be set before the first HttpServer or virtual thread
+     * exists. TCP_NODELAY stops Nagle from holding a response body back behind its
+     * headers for a delayed ACK (~40 ms per keep-alive request). On JDK 21 the
+     * HttpServer reads request headers inside a synchronized stream, so a client
+     * trickling headers pins the carrier of its virtual thread; a wider carrier
+     * pool and a request read deadline keep that from stalling every other
+     * exchange.
+     */
+    public static void applyServerProperties() {
+        if (SharedData.virtualCarriers > 0
+                && System.getProperty("jdk.virtualThreadScheduler.parallelism") == null) {
+            System.setProperty("jdk.virtualThreadScheduler.parallelism",
+                               String.valueOf(SharedData.virtualCarriers));
+            System.setProperty("jdk.virtualThreadScheduler.maxPoolSize",
+                               String.valueOf(Math.max(256, SharedData.virtualCarriers)));
+        }
+        setIfAbsent("sun.net.httpserver.nodelay",            String.valueOf(SharedData.httpNoDelay));
+        setIfAbsent("sun.net.httpserver.idleInterval",       String.valueOf(SharedData.httpIdleSec));
+        setIfAbsent("sun.net.httpserver.maxIdleConnections", String.valueOf(SharedData.httpMaxIdleConns));
+        if (SharedData.httpMaxReqTimeSec > 0
+                && System.getProperty("sun.net.httpserver.maxReqTime") == null) {
+            System.setProperty("sun.net.httpserver.maxReqTime",
+                               String.valueOf(SharedData.httpMaxReqTimeSec));
+        }
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) System.setProperty(key, value);
+    }
+
+    /**
+     * FIXED: {@code workers} platform threads (the original behaviour).
+     * VIRTUAL: one virtual thread per exchange, unbounded.
+     * BOUNDED_VIRTUAL: one virtual thread per exchange, at most {@code limit} running
+     * the handler at once; the rest park cheaply instead of pinning a carrier.
+     */
+    public static ExecutorService createExecutor(ExecutorMode mode, int workers, int limit) {
+        switch (mode) {
+            case VIRTUAL:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            case BOUNDED_VIRTUAL:
+                Semaphore permits = new Semaphore(limit);
+                ThreadFactory factory = Thread.ofVirtual().name("http-vt-", 0).factory();
+                return Executors.newThreadPerTaskExecutor(r -> factory.newThread(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    try {
+                        r.run();
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            default:
+                return Executors.newFixedThreadPool(workers);
+        }
     }
 }
@@ -0,0 +1,37 @@
+package org.example.core;
+
+/**
+ * Immutable view of one source IP as of a detection tick. Rates are counts
+ * per tick; {@link DetectionEngine.Tick#perSecond} converts them.
+ */
+public class IpSnapshot {
+    public final String  ip;
+    public final long    rate;
+    public final double  mean;
+    public final double  stddev;
+    public final boolean blocked;   // by the monitor
+    public final boolean listed;    // by an operator blocklist entry
+    public final int     cooldown;  // calm ticks counted toward unblocking
+
+    IpSnapshot(String ip, long rate, double mean, double stddev, boolean blocked, boolean listed, int cooldown) {
+        this.ip       = ip;
+        this.rate     = rate;
+        this.mean     = mean;
+        this.stddev   = stddev;
+        this.blocked  = blocked;
+        this.listed   = listed;
+        this.cooldown = cooldown;
+    }
+
+    /** Reads the current state of {@code ip}; rate is the last completed tick. */
+    public static IpSnapshot of(String ip) {
+        TrafficStats stats = SharedData.statsByIp.get(ip);
+        return new IpSnapshot(ip,
+                stats == null ? 0 : (long) stats.last(),
+                stats == null ? 0 : stats.mean(),
+                stats == null ? 0 : stats.stddev(),
+                SharedData.blockedIPs.contains(ip),
+                SharedData.blocklist.contains(ip),
+                SharedData.cooldownByIp.getOrDefault(ip, 0));
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.core;
+
+import com.sun.net.httpserver.HttpHandler;
+import org.example.util.LatencyHistogram;
+import org.example.util.ProcessStats;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders all counters, gauges and histograms in Prometheus text format on a
+ * background thread every {@link SharedData#metricsIntervalMs} and publishes
+ * the encoded bytes. A scrape only writes the latest snapshot, so it never
+ * touches the live maps or competes with the request path.
+ */
+public class MetricsPublisher {
+    private static final double[] LE_SECONDS =
+            {0.001, 0.005, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+    private static final List<String> CONTENT_TYPE = List.of("text/plain; version=0.0.4; charset=utf-8");
+
+    private static volatile byte[] snapshot = new byte[0];
+    private static ScheduledExecutorService scheduler;
+
+    public static final HttpHandler handler = exchange -> {
+        byte[] body = snapshot;
+        exchange.getResponseHeaders().put("Content-type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    };
+
+    public static synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "MetricsPublisher");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(MetricsPublisher::publish,
+                0, SharedData.metricsIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    static void publish() {
+        StringBuilder sb = new StringBuilder(4096);
+        counter(sb, "ddos_requests_attempted_total", "Requests and packets counted per source",
+                SharedData.totalAttempted.get());
+        counter(sb, "ddos_requests_served_total", "Requests that reached the served path",
+                SharedData.totalServed.get());
+        counter(sb, "ddos_frontend_rejected_total", "Connections reset at accept by the NIO front-end",
+                NioFrontEnd.rejectedAtAccept.get());
+        counter(sb, "ddos_frontend_relayed_total", "Connections relayed by the NIO front-end",
+                NioFrontEnd.relayedConns.get());
+        gauge(sb, "ddos_blocked_ips", "Currently blocked source IPs", SharedData.blockedIPs.size());
+        gauge(sb, "ddos_blocklist_entries", "Operator blocklist entries (exact IPs and CIDRs)",
+                SharedData.blocklist.size());
+        gauge(sb, "ddos_process_rss_bytes", "Resident set size of this process (-1 if unknown)",
+                ProcessStats.rssBytes());
+        gauge(sb, "ddos_tracked_ips", "Source IPs with attempt counters", SharedData.attemptsByIp.size());
+        gauge(sb, "ddos_packet_queue_depth", "Captured lines waiting for the parser",
+                SharedData.packetLines.size());
+        gauge(sb, "ddos_rate_limiter_buckets", "Per-IP token buckets held by the rate limiter",
+                SharedData.rateLimiter.trackedIps());
+        gauge(sb, "ddos_under_attack", "1 while any IP is blocked or a distributed flood is detected",
+                !SharedData.blockedIPs.isEmpty() || SharedData.entropyDetector.isUnderAttack() ? 1 : 0);
+        gauge(sb, "ddos_distinct_sources", "HyperLogLog estimate of distinct sources in the last tick",
+                SharedData.entropyDetector.getLastDistinct());
+        gauge(sb, "ddos_source_entropy", "Normalized source entropy in the last tick",
+                SharedData.entropyDetector.getLastEntropy());
+
+        histogramHeader(sb, "ddos_block_latency_seconds",
+                "Block pipeline latency by stage (detect, enforce, block)");
+        histogram(sb, "ddos_block_latency_seconds", "stage=\"detect\"",  SharedData.blockLatency.detectLatency);
+        histogram(sb, "ddos_block_latency_seconds", "stage=\"enforce\"", SharedData.blockLatency.enforceLatency);
+        histogram(sb, "ddos_block_latency_seconds", "stage=\"block\"",   SharedData.blockLatency.blockLatency);
+
+        if (SharedData.traceSampleEvery > 0) {
+            histogramHeader(sb, "ddos_pipeline_stage_seconds",
+                    "Capture pipeline latency of traced lines by stage (read, queue, parse, count, detect, enforce)");
+            for (PipelineTracer.Stage s : PipelineTracer.Stage.values()) {
+                histogram(sb, "ddos_pipeline_stage_seconds", "stage=\"" + s.name().toLowerCase(Locale.ROOT) + "\"",
+                        SharedData.pipelineTrace.stage(s));
+            }
+            histogram(sb, "ddos_pipeline_stage_seconds", "stage=\"end_to_end\"", SharedData.pipelineTrace.endToEnd);
+        }
+
+        if (!SharedData.reverseProxy.getStats().isEmpty()) {
+            histogramHeader(sb, "ddos_upstream_latency_seconds", "Reverse-proxy latency per upstream");
+            SharedData.reverseProxy.getStats().forEach((up, st) ->
+                    histogram(sb, "ddos_upstream_latency_seconds", "upstream=\"" + up + "\"", st.totalLatency));
+            sb.append("# TYPE ddos_upstream_errors_total counter\n");
+            SharedData.reverseProxy.getStats().forEach((up, st) ->
+                    sb.append("ddos_upstream_errors_total{upstream=\"").append(up).append("\"} ")
+                      .append(st.errors.get()).append('\n'));
+        }
+        snapshot = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void counter(StringBuilder sb, String name, String help, long value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+          .append("# TYPE ").append(name).append(" counter\n")
+          .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder sb, String name, String help, double value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+          .append("# TYPE ").append(name).append(" gauge\n")
+          .append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void histogramHeader(StringBuilder sb, String name, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+          .append("# TYPE ").append(name).append(" histogram\n");
+    }
+
+    private static void histogram(StringBuilder sb, String name, String labels, LatencyHistogram h) {
+        long cumulative = 0;
+        for (double le : LE_SECONDS) {
+            cumulative = h.getCountAtOrBelow((long) (le * 1e9));
+            sb.append(name).append("_bucket{").append(labels).append(",le=\"").append(le).append("\"} ")
+              .append(cumulative).append('\n');
+        }
+        // Buckets and count are read at slightly different times; keep +Inf monotonic
+        long count = Math.max(h.getCount(), cumulative);
+        sb.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(count).append('\n')
+          .append(name).append("_sum{").append(labels).append("} ").append(h.getSum() / 1e9).append('\n')
+          .append(name).append("_count{").append(labels).append("} ").append(count).append('\n');
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Selector-based TCP front-end on the protected port. The source address is
+ * checked with {@link SharedData#isBlocked} right after accept(); blocked
+ * connections are reset without reading a byte. Allowed connections are relayed
+ * to the HttpServer listening on loopback.
+ *
+ * Only the TCP source address can be checked here; clients identified by
+ * X-Forwarded-For are still rejected by the handler.
+ */
+public class NioFrontEnd implements Runnable {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    public static final AtomicLong rejectedAtAccept = new AtomicLong(0);
+    public static final AtomicLong relayedConns     = new AtomicLong(0);
+
+    // Backend-side view of a relayed connection (our local port) -> real client IP
+    private static final ConcurrentHashMap<Integer, String> clientByPort = new ConcurrentHashMap<>();
+
+    private final Selector            selector;
+    private final ServerSocketChannel listener;
+    private final InetSocketAddress   backend;
+    private volatile boolean          running = true;
+
+    private NioFrontEnd(int port, InetSocketAddress backend) throws IOException {
+        this.selector = Selector.open();
+        this.listener = ServerSocketChannel.open();
+        this.backend  = backend;
+        listener.bind(new InetSocketAddress(port), SharedData.httpBacklog);
+        listener.configureBlocking(false);
+        listener.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public static NioFrontEnd start(int port, int backendPort) throws IOException {
+        NioFrontEnd fe = new NioFrontEnd(port,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), backendPort));
+        Thread t = new Thread(fe, "NioFrontEnd");
+        t.setDaemon(true);
+        t.start();
+        return fe;
+    }
+
+    /** Stops accepting, resets every relayed connection and releases the port. */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * @return The real client IP for an exchange that arrived through the relay,
+     *         or the remote address itself if it did not.
+     */
+    public static String clientIp(InetSocketAddress remote) {
+        if (!clientByPort.isEmpty() && remote.getAddress().isLoopbackAddress()) {
+            String ip = clientByPort.get(remote.getPort());
+            if (ip != null) return ip;
+        }
+        return remote.getAddress().getHostAddress();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        ((Relay) key.attachment()).handle(key);
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) SharedData.logFirewallEvent("Front-end error: " + e.getMessage());
+            }
+        }
+        shutdown();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client;
+        while ((client = listener.accept()) != null) {
+            SocketChannel upstream = null;
+            try {
+                String ip = ((InetSocketAddress) client.getRemoteAddress()).getAddress().getHostAddress();
+                if (SharedData.isBlocked(ip)) {
+                    SharedData.totalAttempted.incrementAndGet();
+                    SharedData.attemptsByIp.computeIfAbsent(ip, k -> new AtomicLong(0)).incrementAndGet();
+                    rejectedAtAccept.incrementAndGet();
+                    SharedData.blockLatency.onRejected(ip);
+                    SharedData.pipelineTrace.onRejected(ip);
+                    // Linger 0 sends RST and skips TIME_WAIT on our side
+                    client.setOption(StandardSocketOptions.SO_LINGER, 0);
+                    client.close();
+                    continue;
+                }
+                client.configureBlocking(false);
+                client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                upstream = SocketChannel.open();
+                upstream.configureBlocking(false);
+                upstream.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Relay relay = new Relay(client, upstream, ip);
+                upstream.connect(backend);
+                relay.upstreamKey = upstream.register(selector, SelectionKey.OP_CONNECT, relay);
+                relayedConns.incrementAndGet();
+            } catch (IOException e) {
+                // One bad connection must not leak its sockets or stop the accept loop
+                closeQuietly(client);
+                closeQuietly(upstream);
+                SharedData.logFirewallEvent("Front-end accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Selector thread, once the loop has stopped
+    private void shutdown() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Relay) ((Relay) key.attachment()).close();
+            }
+        } catch (ClosedSelectorException ignored) {
+            // already closed
+        }
+        closeQuietly(listener);
+        try { selector.close(); } catch (IOException ignored) {}
+    }
+
+    private static void closeQuietly(Channel ch) {
+        if (ch == null) return;
+        try { ch.close(); } catch (IOException ignored) {}
+    }
+
+    private class Relay {
+        final SocketChannel client, upstream;
+        final String        ip;
+        final ByteBuffer    toUpstream = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        final ByteBuffer    toClient   = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        SelectionKey clientKey, upstreamKey;
+        boolean clientEof, upstreamEof;
+        int     localPort = -1;
+
+        Relay(SocketChannel client, SocketChannel upstream, String ip) {
+            this.client   = client;
+            this.upstream = upstream;
+            this.ip       = ip;
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if (key.isConnectable()) {
+                    upstream.finishConnect();
+                    localPort = ((InetSocketAddress) upstream.getLocalAddress()).getPort();
+                    clientByPort.put(localPort, ip);
+                    upstreamKey.interestOps(SelectionKey.OP_READ);
+                    clientKey = client.register(selector, SelectionKey.OP_READ, this);
+                    return;
+                }
+                boolean fromClient = key == clientKey;
+                if (key.isReadable()) {
+                    pump(fromClient ? client : upstream, fromClient ? toUpstream : toClient, fromClient);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    flush(fromClient ? client : upstream, fromClient ? toClient : toUpstream, !fromClient);
+                }
+            } catch (IOException | CancelledKeyException e) {
+                close();
+            }
+        }
+
+        private void pump(SocketChannel src, ByteBuffer buf, boolean fromClient) throws IOException {
+            int n = src.read(buf);
+            if (n < 0) {
+                if (fromClient) clientEof = true; else upstreamEof = true;
+                SelectionKey srcKey = fromClient ? clientKey : upstreamKey;
+                srcKey.interestOps(srcKey.interestOps() & ~SelectionKey.OP_READ);
+            }
+            flush(fromClient ? upstream : client, buf, fromClient);
+        }
+
+        // Writes buffered bytes to dst; if they don't all fit, parks the source until dst drains.
+        private void flush(SocketChannel dst, ByteBuffer buf, boolean fromClient) throws IOException {
+            SelectionKey srcKey = fromClient ? clientKey : upstreamKey;
+            SelectionKey dstKey = fromClient ? upstreamKey : clientKey;
+            boolean srcEof      = fromClient ? clientEof : upstreamEof;
+            buf.flip();
+            dst.write(buf);
+            boolean drained = !buf.hasRemaining();
+            buf.compact();
+            if (drained) {
+                dstKey.interestOps(dstKey.interestOps() & ~SelectionKey.OP_WRITE);
+                if (srcEof) {
+                    dst.shutdownOutput();
+                    if (clientEof && upstreamEof) close();
+                } else {
+                    srcKey.interestOps(srcKey.interestOps() | SelectionKey.OP_READ);
+                }
+            } else {
+                dstKey.interestOps(dstKey.interestOps() | SelectionKey.OP_WRITE);
+                srcKey.interestOps(srcKey.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+
+        void close() {
+            if (localPort >= 0) clientByPort.remove(localPort);
+            closeQuietly(client);
+            closeQuietly(upstream);
+        }
+    }
+}
@@ -1,14 +1,43 @@
 package org.example.core;
 
+import org.example.load.SourcePopulation;
+import org.example.load.SyntheticCapture;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
 
 public class PacketCapture {
+    private static volatile SyntheticCapture synthetic;
+
     public static void startPacketCapture() throws IOException {
+        if ("synthetic".equals(SharedData.captureSource)) {
+            // Generated lines in tcpdump's format; no process, no sudo
+            SourcePopulation sources = new SourcePopulation(10,
+                    SourcePopulation.Distribution.valueOf(SharedData.syntheticDistribution.toUpperCase(Locale.ROOT)),
+                    SharedData.syntheticSources);
+            synthetic = new SyntheticCapture(sources, SharedData.syntheticRate, SharedData.httpPort,
+                    SharedData.syntheticFlags);
+            return;
+        }
+        String filter = SharedData.captureFilter != null
+                ? SharedData.captureFilter
+                : "port " + SharedData.httpPort + " and (tcp-syn|tcp-ack)!=0";
         ProcessBuilder pb = new ProcessBuilder(
-                "sudo", "tcpdump", "-l", "-n", "-i", "any",
-                "port", "8080", "and", "(tcp-syn|tcp-ack)!=0"
+                "sudo", "tcpdump", "-l", "-n", "-i", SharedData.captureInterface, filter
         );
         pb.redirectErrorStream(true);
         SharedData.tcpdumpProcess = pb.start();
     }
+
+    /** @return The line source for the consumer: tcpdump's output, or the synthetic stream. */
+    public static InputStream stream() {
+        SyntheticCapture s = synthetic;
+        return s != null ? s : SharedData.tcpdumpProcess.getInputStream();
+    }
+
+    /** @return The synthetic source if one is running, else null. */
+    public static SyntheticCapture synthetic() {
+        return synthetic;
+    }
 }
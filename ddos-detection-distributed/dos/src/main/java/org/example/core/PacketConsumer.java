@@ -9,9 +9,19 @@ public class PacketConsumer {
         // Reader thread
         Thread reader = new Thread(() -> {
             try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(SharedData.tcpdumpProcess.getInputStream()))) {
+                    new InputStreamReader(PacketCapture.stream()))) {
+                PipelineTracer trace = SharedData.pipelineTrace;
                 String line;
+                long seq = 0;
+                int sinceSample = 0;
                 while ((line = br.readLine()) != null) {
+                    seq++;
+                    // Untraced lines stay out of the tracer entirely
+                    int every = SharedData.traceSampleEvery;
+                    if (every > 0 && ++sinceSample >= every) {
+                        sinceSample = 0;
+                        trace.enqueued(trace.read(line, seq));
+                    }
                     SharedData.packetLines.put(line);
                 }
             } catch (Exception e) {
@@ -23,25 +33,52 @@ public class PacketConsumer {
 
         // Parser thread
         Thread consumer = new Thread(() -> {
+            PipelineTracer trace = SharedData.pipelineTrace;
+            long seq = 0;
             while (true) {
                 try {
-                    String pkt = SharedData.packetLines.take();
-                    String[] parts = pkt.split("\\s+");
-                    if (parts.length >= 3 && "IP".equals(parts[1])) {
-                        String srcPort = parts[2];
-                        int idx = srcPort.lastIndexOf('.');
-                        if (idx > 0) {
-                            String srcIp = srcPort.substring(0, idx);
-                            SharedData.totalAttempted.incrementAndGet();
-                            SharedData.attemptsByIp
-                                    .computeIfAbsent(srcIp, k -> new AtomicLong(0))
-                                    .incrementAndGet();
-                        }
+                    String line = SharedData.packetLines.take();
+                    seq++;
+                    PipelineTracer.Sample s = trace.hasQueued() ? trace.taken(seq) : null;
+                    if (s == null) {
+                        countLine(line);
+                        continue;
                     }
+                    long start  = System.nanoTime();
+                    String ip   = sourceIp(line);
+                    long parsed = System.nanoTime();
+                    if (ip != null) count(ip);
+                    trace.counted(s, ip, start, parsed, System.nanoTime());
                 } catch (InterruptedException ignored) {}
             }
         }, "PacketCaptureConsumer");
         consumer.setDaemon(true);
         consumer.start();
     }
+
+    /** Parses one tcpdump line and counts its source IP; other lines are ignored. */
+    public static void countLine(String pkt) {
+        String srcIp = sourceIp(pkt);
+        if (srcIp != null) count(srcIp);
+    }
+
+    private static void count(String srcIp) {
+        SharedData.totalAttempted.incrementAndGet();
+        long attempts = SharedData.attemptsByIp
+                .computeIfAbsent(srcIp, k -> new AtomicLong(0))
+                .incrementAndGet();
+        SharedData.entropyDetector.observe(srcIp);
+        SharedData.blockLatency.onAttempt(srcIp, attempts, SharedData.thresholds.get().hardLimit);
+    }
+
+    /** @return The source address of a tcpdump IP line, or null if it is not one. */
+    public static String sourceIp(String pkt) {
+        String[] parts = pkt.split("\\s+");
+        if (parts.length >= 3 && "IP".equals(parts[1])) {
+            String srcPort = parts[2];
+            int idx = srcPort.lastIndexOf('.');
+            if (idx > 0) return srcPort.substring(0, idx);
+        }
+        return null;
+    }
 }
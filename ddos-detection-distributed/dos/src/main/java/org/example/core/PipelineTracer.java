@@ -0,0 +1,247 @@
+package org.example.core;
+
+import org.example.util.LatencyHistogram;
+
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Follows a sample of captured lines from tcpdump to the detector's decision
+ * and records how long each stage took:
+ *
+ *   READ     tcpdump timestamp on the line -> line read by the reader thread
+ *   QUEUE    put on packetLines -> taken by the consumer
+ *   PARSE    source IP extracted
+ *   COUNT    per-IP counters, entropy and block-latency hooks updated
+ *   DETECT   counted -> end of the first tick that saw the count
+ *   ENFORCE  block decision -> first 403 to that IP (only for sampled IPs that got blocked)
+ *
+ * plus the end-to-end time from capture to decision. One line in every
+ * {@link SharedData#traceSampleEvery} is traced. The callers pick the lines
+ * and count queue positions themselves, so an untraced line never calls in
+ * here on the reader side and costs one volatile read on the consumer side.
+ * Samples are matched to lines by their position in the queue, so the reader
+ * and the single consumer must be the only ones moving lines through it.
+ */
+public class PipelineTracer {
+    public enum Stage { READ, QUEUE, PARSE, COUNT, DETECT, ENFORCE }
+
+    // Samples waiting for a tick or a 403; beyond this new ones are dropped
+    private static final int MAX_PENDING = 10_000;
+
+    /** One traced line; times are System.nanoTime(). */
+    public static final class Sample {
+        final long seq;
+        final long captureNs;   // 0 when the line carried no usable timestamp
+        long enqueuedNs, countedNs, decidedNs;
+
+        Sample(long seq, long captureNs) {
+            this.seq       = seq;
+            this.captureNs = captureNs;
+        }
+    }
+
+    private final LatencyHistogram[] stages = new LatencyHistogram[Stage.values().length];
+    public  final LatencyHistogram   endToEnd = new LatencyHistogram();
+
+    private final ConcurrentLinkedQueue<Sample>     inQueue         = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<String, Sample> awaitingTick    = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Sample> awaitingEnforce = new ConcurrentHashMap<>();
+    private final AtomicInteger                     queued          = new AtomicInteger();   // size of inQueue
+    private volatile long tickStartNs;
+
+    public PipelineTracer() {
+        for (int i = 0; i < stages.length; i++) stages[i] = new LatencyHistogram();
+    }
+
+    public LatencyHistogram stage(Stage s) {
+        return stages[s.ordinal()];
+    }
+
+    /**
+     * Reader thread, for a line picked for tracing, before it is queued.
+     * @param seq The line's position among all lines the reader has queued, from 1.
+     * @return The sample to pass to {@link #enqueued}.
+     */
+    public Sample read(String line, long seq) {
+        long now = System.nanoTime();
+        long captureNs = 0;
+        long readLag = sinceCapture(line);
+        if (readLag >= 0) {
+            stage(Stage.READ).record(readLag);
+            captureNs = now - readLag;
+        }
+        return new Sample(seq, captureNs);
+    }
+
+    /** Reader thread, right before the put; the sample must be visible before the line is. */
+    public void enqueued(Sample s) {
+        s.enqueuedNs = System.nanoTime();
+        inQueue.add(s);
+        queued.incrementAndGet();
+    }
+
+    /** Consumer thread: false while no traced line is queued, so {@link #taken} can be skipped. */
+    public boolean hasQueued() {
+        return queued.get() > 0;
+    }
+
+    /**
+     * Consumer thread, after a take while {@link #hasQueued()}.
+     * @param seq The line's position among all lines the consumer has taken, from 1.
+     * @return The sample for this line, or null if it is not traced.
+     */
+    public Sample taken(long seq) {
+        Sample s = inQueue.peek();
+        // Lines taken by someone else leave their samples behind; drop them
+        while (s != null && s.seq < seq) {
+            poll();
+            s = inQueue.peek();
+        }
+        if (s == null || s.seq != seq) return null;
+        poll();
+        stage(Stage.QUEUE).record(System.nanoTime() - s.enqueuedNs);
+        return s;
+    }
+
+    private void poll() {
+        inQueue.poll();
+        queued.decrementAndGet();
+    }
+
+    /** Consumer thread: {@code parsedNs} and {@code countedNs} end the parse and count stages. */
+    public void counted(Sample s, String ip, long startNs, long parsedNs, long countedNs) {
+        stage(Stage.PARSE).record(parsedNs - startNs);
+        if (ip == null) return;
+        stage(Stage.COUNT).record(countedNs - parsedNs);
+        s.countedNs = countedNs;
+        // The first traced line per IP is the one that waits longest for a tick
+        if (awaitingTick.size() < MAX_PENDING) awaitingTick.putIfAbsent(ip, s);
+    }
+
+    /** Detection thread, as a tick starts reading the counters. */
+    public void onTickStart() {
+        tickStartNs = System.nanoTime();
+    }
+
+    /** Detection thread, when the tick blocks {@code ip}. */
+    public void onBlocked(String ip) {
+        if (awaitingTick.isEmpty()) return;
+        Sample s = awaitingTick.get(ip);
+        if (s == null || s.countedNs > tickStartNs) return;
+        awaitingTick.remove(ip);
+        decided(s, System.nanoTime());
+        if (awaitingEnforce.size() < MAX_PENDING) awaitingEnforce.put(ip, s);
+    }
+
+    /** Detection thread, after the tick: every sample counted before it started has been evaluated. */
+    public void onTickEnd() {
+        if (awaitingTick.isEmpty()) return;
+        long now = System.nanoTime(), start = tickStartNs;
+        for (Iterator<Sample> it = awaitingTick.values().iterator(); it.hasNext(); ) {
+            Sample s = it.next();
+            if (s.countedNs <= start) {
+                it.remove();
+                decided(s, now);
+            }
+        }
+    }
+
+    /** Called for each 403; only sampled IPs blocked by a tick are recorded. */
+    public void onRejected(String ip) {
+        if (awaitingEnforce.isEmpty()) return;
+        Sample s = awaitingEnforce.remove(ip);
+        if (s != null) stage(Stage.ENFORCE).record(System.nanoTime() - s.decidedNs);
+    }
+
+    public void onUnblocked(String ip) {
+        awaitingEnforce.remove(ip);
+    }
+
+    public void reset() {
+        for (LatencyHistogram h : stages) h.reset();
+        endToEnd.reset();
+        awaitingTick.clear();
+        awaitingEnforce.clear();
+    }
+
+    /** Per-stage table: count, p50/p99/max and each stage's share of the mean end-to-end time. */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-10s | %-9s | %-10s | %-10s | %-10s | %-10s | %s%n",
+                "Stage", "Samples", "Mean (ms)", "p50 (ms)", "p99 (ms)", "Max (ms)", "Share"));
+        sb.append("-".repeat(82)).append('\n');
+        double total = 0;
+        for (Stage s : Stage.values()) {
+            if (s != Stage.ENFORCE) total += stage(s).getMean();
+        }
+        for (Stage s : Stage.values()) {
+            LatencyHistogram h = stage(s);
+            // Enforcement happens after the decision, so it is not part of the breakdown
+            String share = s == Stage.ENFORCE || total == 0 ? "" : String.format("%.1f%%", 100 * h.getMean() / total);
+            row(sb, s.name(), h, share);
+        }
+        row(sb, "END2END", endToEnd, "");
+        return sb.toString();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("sampleEvery", SharedData.traceSampleEvery);
+        for (Stage s : Stage.values()) out.put(s.name().toLowerCase(Locale.ROOT), summary(stage(s)));
+        out.put("endToEnd", summary(endToEnd));
+        return out;
+    }
+
+    private void decided(Sample s, long now) {
+        s.decidedNs = now;
+        stage(Stage.DETECT).record(now - s.countedNs);
+        if (s.captureNs != 0) endToEnd.record(now - s.captureNs);
+    }
+
+    private static Map<String, Object> summary(LatencyHistogram h) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count",  h.getCount());
+        m.put("meanMs", h.getMean() / 1e6);
+        m.put("p50Ms",  h.getValueAtPercentile(50) / 1e6);
+        m.put("p99Ms",  h.getValueAtPercentile(99) / 1e6);
+        m.put("maxMs",  h.getMax() / 1e6);
+        return m;
+    }
+
+    private static void row(StringBuilder sb, String name, LatencyHistogram h, String share) {
+        sb.append(String.format("%-10s | %-9d | %-10.3f | %-10.3f | %-10.3f | %-10.3f | %s%n", name, h.getCount(),
+                h.getMean() / 1e6, h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(99) / 1e6,
+                h.getMax() / 1e6, share));
+    }
+
+    /**
+     * @return ns since the tcpdump timestamp (HH:MM:SS.ffffff, local time) that
+     * starts the line, or -1 if there is none.
+     */
+    static long sinceCapture(String line) {
+        if (line.length() < 15 || line.charAt(2) != ':' || line.charAt(5) != ':' || line.charAt(8) != '.') return -1;
+        long micros = 0;
+        for (int i = 0; i < 15; i++) {
+            if (i == 2 || i == 5 || i == 8) continue;
+            int d = line.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            micros = micros * 10 + d;
+        }
+        // micros is now HHMMSSffffff as a decimal number
+        long ffffff = micros % 1_000_000, ss = micros / 1_000_000 % 100;
+        long mm = micros / 100_000_000 % 100, hh = micros / 10_000_000_000L;
+        long captured = ((hh * 60 + mm) * 60 + ss) * 1_000_000 + ffffff;
+        long now = LocalTime.now().toNanoOfDay() / 1000;
+        long lag = now - captured;
+        if (lag < -1_000_000) lag += 86_400_000_000L;   // captured before midnight
+        else if (lag < 0)     lag = 0;                   // clocks a little apart
+        return lag * 1000;
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free per-IP token bucket used inline by the HTTP handler.
+ * Each bucket is a single AtomicLong: the high 32 bits hold the last refill
+ * time, the low 32 bits hold the token count in thousandths of a token.
+ * Updates are a CAS loop, no locks.
+ *
+ * The time field is a monotonic millisecond clock kept modulo 2^32, so it
+ * wraps every ~49.7 days. Elapsed time is taken as the signed 32-bit
+ * difference, which stays correct across the wrap for gaps up to ~24.8 days;
+ * {@link #evictIdle()} runs every detection tick and drops a bucket long
+ * before it could sit idle that long.
+ */
+public class RateLimiter {
+    private static final long MILLI      = 1000;
+    private static final long TOKEN_MASK = 0xFFFFFFFFL;
+    private static final long TIME_MASK  = 0xFFFFFFFFL;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long epochNs = System.nanoTime();
+
+    /** @return true if the request may proceed, false if it should get a 429. */
+    public boolean tryAcquire(String ip, Thresholds limits) {
+        if (!limits.rateLimit) return true;
+        int  rate     = limits.rate;
+        long now      = nowMs();
+        long capacity = limits.burst * MILLI;
+        AtomicLong bucket = buckets.get(ip);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(ip, k -> new AtomicLong(pack(now, capacity)));
+        }
+        while (true) {
+            long state  = bucket.get();
+            long last   = state >>> 32;
+            long tokens = state & TOKEN_MASK;
+            long elapsed = elapsedMs(last, now);
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * rate);
+                last   = now;
+            }
+            if (tokens < MILLI) {
+                return false;
+            }
+            if (bucket.compareAndSet(state, pack(last, tokens - MILLI))) {
+                return true;
+            }
+        }
+    }
+
+    /** Drops buckets that have been idle long enough to be full again. */
+    public void evictIdle(Thresholds limits) {
+        long now    = nowMs();
+        long fullMs = Math.max(1000, limits.burst * MILLI / limits.rate);
+        buckets.entrySet().removeIf(e -> elapsedMs(e.getValue().get() >>> 32, now) > fullMs);
+    }
+
+    public int trackedIps() { return buckets.size(); }
+
+    // Milliseconds since the limiter was created, modulo 2^32
+    private long nowMs() {
+        return ((System.nanoTime() - epochNs) / 1_000_000) & TIME_MASK;
+    }
+
+    // Signed difference of two wrapped timestamps; negative if last is ahead
+    private static long elapsedMs(long last, long now) {
+        return (int) (now - last);
+    }
+
+    private static long pack(long timeMs, long milliTokens) {
+        return ((timeMs & TIME_MASK) << 32) | (milliTokens & TOKEN_MASK);
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.core;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import org.example.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Forwards requests that passed the blocklist and rate checks to one or more
+ * upstream backends (round-robin) over a shared keep-alive HttpClient. Request
+ * and response bodies are streamed, never buffered whole.
+ */
+public class ReverseProxy {
+    // Hop-by-hop headers plus the ones HttpClient refuses to let callers set
+    private static final Set<String> SKIP_REQUEST = Set.of(
+            "connection", "keep-alive", "proxy-connection", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "host", "content-length", "expect", "x-forwarded-for");
+    private static final Set<String> SKIP_RESPONSE = Set.of(
+            "connection", "keep-alive", "proxy-connection", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length", "date");
+
+    public static class UpstreamStats {
+        public final LatencyHistogram headerLatency = new LatencyHistogram();
+        public final LatencyHistogram totalLatency  = new LatencyHistogram();
+        public final AtomicLong       errors        = new AtomicLong(0);
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final ConcurrentHashMap<String, UpstreamStats> stats = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile URI[] upstreams = new URI[0];
+    private volatile int   timeoutMs = 5000;
+
+    /** @param spec comma-separated base URLs, e.g. {@code http://10.0.0.5:8000}; empty disables proxying */
+    public void setUpstreams(String spec) {
+        if (spec == null || spec.isBlank()) {
+            upstreams = new URI[0];
+            return;
+        }
+        String[] parts = spec.split(",");
+        URI[] uris = new URI[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String base = parts[i].trim();
+            uris[i] = URI.create(base.endsWith("/") ? base.substring(0, base.length() - 1) : base);
+        }
+        upstreams = uris;
+    }
+
+    public boolean isEnabled()                  { return upstreams.length > 0; }
+    public Map<String, UpstreamStats> getStats() { return stats; }
+    public void setTimeoutMs(int timeoutMs)      { this.timeoutMs = timeoutMs; }
+
+    public void forward(HttpExchange exchange) throws IOException {
+        URI[] ups = upstreams;
+        URI upstream = ups[Math.floorMod(next.getAndIncrement(), ups.length)];
+        UpstreamStats st = stats.computeIfAbsent(upstream.toString(), k -> new UpstreamStats());
+
+        String method = exchange.getRequestMethod();
+        Headers in = exchange.getRequestHeaders();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> resp;
+        try {
+            HttpRequest.Builder req = HttpRequest.newBuilder(target(upstream, exchange.getRequestURI()))
+                    .timeout(Duration.ofMillis(timeoutMs))
+                    .method(method, hasBody(in)
+                            ? HttpRequest.BodyPublishers.ofInputStream(exchange::getRequestBody)
+                            : HttpRequest.BodyPublishers.noBody());
+            for (Map.Entry<String, List<String>> h : in.entrySet()) {
+                if (SKIP_REQUEST.contains(h.getKey().toLowerCase(Locale.ROOT))) continue;
+                for (String v : h.getValue()) req.header(h.getKey(), v);
+            }
+            String peer = NioFrontEnd.clientIp(exchange.getRemoteAddress());
+            String xff  = in.getFirst("X-Forwarded-For");
+            req.header("X-Forwarded-For", xff == null || xff.isEmpty() ? peer : xff + ", " + peer);
+            // Host is replaced by the upstream's; a proxy in front of us has already set this
+            String host = in.getFirst("Host");
+            if (host != null && !in.containsKey("X-Forwarded-Host")) req.header("X-Forwarded-Host", host);
+
+            resp = client.send(req.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            badGateway(exchange, st);
+            return;
+        } catch (IOException | IllegalArgumentException e) {
+            // Unreachable upstream, or a target or header the client cannot forward
+            badGateway(exchange, st);
+            return;
+        }
+        st.headerLatency.record(System.nanoTime() - start);
+
+        Headers out = exchange.getResponseHeaders();
+        resp.headers().map().forEach((k, v) -> {
+            if (!SKIP_RESPONSE.contains(k.toLowerCase(Locale.ROOT))) out.put(k, v);
+        });
+        // -1: no body; 0: unknown length, the server streams it chunked
+        OptionalLong declared = resp.headers().firstValueAsLong("Content-Length");
+        long length = declared.isPresent() ? declared.getAsLong() : 0;
+        if (length == 0 && declared.isPresent() || "HEAD".equals(method)
+                || resp.statusCode() == 204 || resp.statusCode() == 304) {
+            length = -1;
+        }
+        try (InputStream body = resp.body()) {
+            exchange.sendResponseHeaders(resp.statusCode(), length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                if (length >= 0) body.transferTo(os);
+            }
+        } catch (IOException e) {
+            st.errors.incrementAndGet();
+            throw e;
+        } finally {
+            st.totalLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The upstream base plus the request's path and query. Absolute-form targets
+     * ({@code GET http://host/path}) keep only their path, so a client cannot
+     * choose the host the proxy connects to.
+     */
+    static URI target(URI upstream, URI requested) {
+        String path  = requested.getRawPath();
+        String query = requested.getRawQuery();
+        StringBuilder sb = new StringBuilder(upstream.toString());
+        sb.append(path == null || path.isEmpty() ? "/" : path);
+        if (query != null) sb.append('?').append(query);
+        return URI.create(sb.toString());
+    }
+
+    private static boolean hasBody(Headers in) {
+        String len = in.getFirst("Content-Length");
+        return (len != null && !"0".equals(len)) || in.containsKey("Transfer-Encoding");
+    }
+
+    private static void badGateway(HttpExchange exchange, UpstreamStats st) throws IOException {
+        st.errors.incrementAndGet();
+        exchange.sendResponseHeaders(502, -1);
+        exchange.close();
+    }
+}
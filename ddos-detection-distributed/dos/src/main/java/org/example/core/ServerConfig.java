@@ -0,0 +1,117 @@
+package org.example.core;
+
+import org.example.load.SourcePopulation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Applies startup settings to {@link SharedData} from a properties file and/or
+ * {@code --key=value} flags (flags win). Recognized keys:
+ *
+ *   port, backlog, executor (FIXED|VIRTUAL|BOUNDED_VIRTUAL), workers, virtualConcurrency,
+ *   virtualCarriers, maxReqTimeSec, noDelay, idleSec, maxIdleConns,
+ *   adminPort, adminBind, adminToken, eventsPort, metricsIntervalMs, nioFrontEnd, internalPort, upstreams,
+ *   hardLimit, minLimit, cooldownTicks, tickMs, firewallLog (events to stdout without the UI),
+ *   rateLimit, rate, burst, shedding (NONE|RATE|PREFIX), minDistinct,
+ *   capture, captureInterface, captureFilter, captureSource (tcpdump|synthetic),
+ *   syntheticRate, syntheticSources, syntheticDistribution, syntheticFlags,
+ *   traceSample (trace 1 captured line in N; 0 = off), mpjBatchSize, mpjBatchDeadlineMs
+ *
+ * Unknown keys are rejected so a typo does not silently run with defaults.
+ */
+public class ServerConfig {
+    /**
+     * @param args {@code --config=path} or {@code --config path} for a properties file,
+     *             plus any {@code --key=value} overrides
+     * @return The flags that were not settings (e.g. {@code --headless}), in order.
+     */
+    public static List<String> apply(String[] args) throws IOException {
+        Properties props = new Properties();
+        List<String> rest = new ArrayList<>();
+        Properties flags = new Properties();
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            if (a.equals("--config") && i + 1 < args.length) {
+                load(props, args[++i]);
+            } else if (a.startsWith("--config=")) {
+                load(props, a.substring("--config=".length()));
+            } else if (a.startsWith("--") && a.indexOf('=') > 2) {
+                flags.setProperty(a.substring(2, a.indexOf('=')), a.substring(a.indexOf('=') + 1));
+            } else {
+                rest.add(a);
+            }
+        }
+        props.putAll(flags);
+        for (String key : props.stringPropertyNames()) set(key, props.getProperty(key).trim());
+        return rest;
+    }
+
+    private static void load(Properties props, String file) throws IOException {
+        try (Reader r = Files.newBufferedReader(Path.of(file))) {
+            props.load(r);
+        }
+    }
+
+    static void set(String key, String v) {
+        switch (key) {
+            case "port":               SharedData.httpPort           = Integer.parseInt(v); break;
+            case "backlog":            SharedData.httpBacklog        = Integer.parseInt(v); break;
+            case "executor":
+                SharedData.executorMode = HttpServerStarter.ExecutorMode.valueOf(v.toUpperCase(Locale.ROOT));
+                break;
+            case "workers":            SharedData.httpWorkers        = Integer.parseInt(v); break;
+            case "virtualConcurrency": SharedData.virtualConcurrency = Integer.parseInt(v); break;
+            case "virtualCarriers":    SharedData.virtualCarriers    = Integer.parseInt(v); break;
+            case "maxReqTimeSec":      SharedData.httpMaxReqTimeSec  = Integer.parseInt(v); break;
+            case "noDelay":            SharedData.httpNoDelay        = Boolean.parseBoolean(v); break;
+            case "idleSec":            SharedData.httpIdleSec        = Integer.parseInt(v); break;
+            case "maxIdleConns":       SharedData.httpMaxIdleConns   = Integer.parseInt(v); break;
+            case "adminPort":          SharedData.adminPort          = Integer.parseInt(v); break;
+            case "adminBind":          SharedData.adminBind          = v; break;
+            case "adminToken":         SharedData.adminToken         = v.isEmpty() ? null : v; break;
+            case "eventsPort":         SharedData.eventsPort         = Integer.parseInt(v); break;
+            case "metricsIntervalMs":  SharedData.metricsIntervalMs  = Integer.parseInt(v); break;
+            case "nioFrontEnd":        SharedData.nioFrontEnd        = Boolean.parseBoolean(v); break;
+            case "internalPort":       SharedData.internalHttpPort   = Integer.parseInt(v); break;
+            case "upstreams":          SharedData.reverseProxy.setUpstreams(v); break;
+            case "hardLimit": case "minLimit": case "cooldownTicks":
+            case "rateLimit": case "rate": case "burst": case "shedding": case "minDistinct":
+                String value = v;
+                SharedData.thresholds.updateAndGet(t -> t.with(key, value));
+                break;
+            case "tickMs":             SharedData.tickMs             = Math.max(10, Integer.parseInt(v)); break;
+            case "firewallLog":
+                SharedData.firewallEventSink = Boolean.parseBoolean(v) ? System.out::print : null;
+                break;
+            case "capture":            SharedData.captureEnabled     = Boolean.parseBoolean(v); break;
+            case "captureInterface":   SharedData.captureInterface   = v; break;
+            case "captureFilter":      SharedData.captureFilter      = v.isEmpty() ? null : v; break;
+            case "captureSource":
+                v = v.toLowerCase(Locale.ROOT);
+                if (!v.equals("tcpdump") && !v.equals("synthetic")) {
+                    throw new IllegalArgumentException("captureSource must be tcpdump or synthetic: " + v);
+                }
+                SharedData.captureSource = v;
+                break;
+            case "syntheticRate":      SharedData.syntheticRate      = Double.parseDouble(v); break;
+            case "syntheticSources":   SharedData.syntheticSources   = Integer.parseInt(v); break;
+            case "syntheticDistribution":
+                SharedData.syntheticDistribution =
+                        SourcePopulation.Distribution.valueOf(v.toUpperCase(Locale.ROOT)).name();
+                break;
+            case "syntheticFlags":     SharedData.syntheticFlags     = v.isEmpty() ? null : v; break;
+            case "traceSample":        SharedData.traceSampleEvery   = Math.max(0, Integer.parseInt(v)); break;
+            case "mpjBatchSize":       SharedData.mpjBatchSize       = Math.max(1, Integer.parseInt(v)); break;
+            case "mpjBatchDeadlineMs": SharedData.mpjBatchDeadlineMs = Math.max(0, Integer.parseInt(v)); break;
+            default:
+                throw new IllegalArgumentException("Unknown setting: " + key);
+        }
+    }
+}
@@ -4,13 +4,13 @@ import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import org.example.ui.FirewallLogPanel;
 
-import java.io.OutputStream;
-import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class SharedData {
     public static final BlockingQueue<String> packetLines   = new LinkedBlockingQueue<>();
@@ -20,39 +20,110 @@ public class SharedData {
     public static final AtomicLong                                 totalServed    = new AtomicLong(0);
     public static final ConcurrentHashMap<String, AtomicLong>      attemptsByIp   = new ConcurrentHashMap<>();
     public static final ConcurrentHashMap<String, AtomicLong>      servedByIp     = new ConcurrentHashMap<>();
+    public static final ConcurrentHashMap<String, Long>            lastTickByIp   = new ConcurrentHashMap<>();
 
     public static final Set<String>                                blockedIPs     = ConcurrentHashMap.newKeySet();
     public static final ConcurrentHashMap<String, TrafficStats>    statsByIp      = new ConcurrentHashMap<>();
+    public static final ConcurrentHashMap<String, Integer>         cooldownByIp   = new ConcurrentHashMap<>();
 
-    public static final ExecutorService                            httpExecutor   = Executors.newFixedThreadPool(8);
+    public static final EntropyDetector                            entropyDetector = new EntropyDetector();
+    public static final RateLimiter                                rateLimiter     = new RateLimiter();
+    public static final BlockLatencyTracker                        blockLatency    = new BlockLatencyTracker();
+    public static final PipelineTracer                             pipelineTrace   = new PipelineTracer();
+    public static final ReverseProxy                               reverseProxy    = new ReverseProxy();
+    public static final Blocklist                                  blocklist       = new Blocklist();
+    public static final DetectionEngine                            detection       = new DetectionEngine();
 
-    public static volatile int hardLimit = 369;
-    public static volatile int minLimit  = 1;
+    public static volatile int                            httpPort           = 8080;
+    public static volatile int                            httpBacklog        = 0;
+    public static volatile int                            httpWorkers        = 8;
+    public static volatile int                            virtualConcurrency = 1000;
+    public static volatile int                            virtualCarriers    = 0;    // 0 = JVM default (#cores)
+    public static volatile int                            httpMaxReqTimeSec  = 0;    // 0 = no header read deadline
+    public static volatile boolean                        httpNoDelay        = true;
+    public static volatile int                            httpIdleSec        = 30;   // keep-alive idle timeout
+    public static volatile int                            httpMaxIdleConns   = 200;
+    public static volatile int                            adminPort          = 0;    // 0 = no /admin or /metrics listener
+    public static volatile String                         adminBind          = "127.0.0.1";
+    public static volatile int                            metricsIntervalMs  = 1000;
+    public static volatile int                            eventsPort         = 0;    // 0 = SSE stream off
+    public static volatile int                            sseMaxLagFrames    = 4;    // unsent frames before a subscriber is dropped
+    public static volatile int                            sseTopK            = 10;
+    public static volatile String                         adminToken         = null; // null = admin API for loopback clients only
+    public static volatile boolean                        nioFrontEnd        = false;
+    public static volatile int                            internalHttpPort   = 18080;
+    public static volatile HttpServerStarter.ExecutorMode executorMode       = HttpServerStarter.ExecutorMode.FIXED;
+    public static volatile boolean                        captureEnabled     = true;
+    public static volatile String                         captureInterface   = "any";
+    public static volatile String                         captureFilter      = null; // null = SYN/ACK on httpPort
+    public static volatile String                         captureSource      = "tcpdump"; // or "synthetic"
+    public static volatile double                         syntheticRate      = 100_000;   // lines/s, 0 = unpaced
+    public static volatile int                            syntheticSources   = 10_000;
+    public static volatile String                         syntheticDistribution = "UNIFORM";
+    public static volatile String                         syntheticFlags     = null;      // null = default SYN/ACK mix
+    public static volatile int                            traceSampleEvery   = 0;         // trace 1 captured line in N, 0 = off
+    public static volatile int                            mpjBatchSize       = 256;       // packets per MPJ message
+    public static volatile int                            mpjBatchDeadlineMs = 5;         // max wait to fill a batch
+
+    // Swapped whole; load once per request or tick
+    public static final AtomicReference<Thresholds> thresholds = new AtomicReference<>(Thresholds.DEFAULTS);
+    public static volatile int tickMs        = 1000; // threshold limits are counts per tick
+
+    public static volatile int chartCapacity  = 86_400; // points kept per chart (24 h at 1 s ticks)
+    public static volatile int chartMaxPoints = 600;    // points drawn per series after downsampling
+    public static volatile int logCapacity    = 50_000; // firewall log lines kept for the UI
+    public static volatile int logFrameMs     = 50;     // at most one log view update per interval
+    public static volatile int tableRows      = 500;    // per-IP rows snapshotted each tick
 
     public static FirewallLogPanel firewallLogPanel;
+    // Where events go without a log panel; null drops them (benchmarks, firewallLog=false)
+    public static volatile Consumer<String> firewallEventSink = System.out::print;
     public static final DateTimeFormatter LOG_TS_FMT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     public static void logFirewallEvent(String event) {
+        FirewallLogPanel panel = firewallLogPanel;
+        Consumer<String> sink  = firewallEventSink;
+        if (panel == null && sink == null) return;
         String ts   = LocalDateTime.now().format(LOG_TS_FMT);
         String line = String.format("[%s] %s%n", ts, event);
-        if (firewallLogPanel != null) firewallLogPanel.appendLog(line);
+        if (panel != null) panel.appendLog(line);
+        else sink.accept(line);
+    }
+
+    /** Blocked by the monitor or by an operator entry (exact IP or CIDR). */
+    public static boolean isBlocked(String ip) {
+        return blockedIPs.contains(ip) || blocklist.contains(ip);
     }
 
     public static final HttpHandler handler = exchange -> {
         String ip = exchange.getRequestHeaders().getFirst("X-Forwarded-For");
         if (ip == null || ip.isEmpty()) {
-            ip = exchange.getRemoteAddress().getAddress().getHostAddress();
+            ip = NioFrontEnd.clientIp(exchange.getRemoteAddress());
         }
 
+        Thresholds limits = thresholds.get();
         totalAttempted.incrementAndGet();
-        attemptsByIp
+        long attempts = attemptsByIp
                 .computeIfAbsent(ip, k -> new AtomicLong(0))
                 .incrementAndGet();
+        entropyDetector.observe(ip);
+        blockLatency.onAttempt(ip, attempts, limits.hardLimit);
+
+        if (isBlocked(ip)) {
+            blockLatency.onRejected(ip);
+            pipelineTrace.onRejected(ip);
+            HttpResponses.forbidden(exchange);
+            return;
+        }
+
+        if (!rateLimiter.tryAcquire(ip, limits)) {
+            HttpResponses.rateLimited(exchange);
+            return;
+        }
 
-        if (blockedIPs.contains(ip)) {
-            exchange.sendResponseHeaders(403, -1);
-            exchange.close();
+        if (entropyDetector.shouldShed(ip, limits.shedding)) {
+            HttpResponses.shed(exchange);
             return;
         }
 
@@ -61,20 +132,16 @@ public class SharedData {
                 .computeIfAbsent(ip, k -> new AtomicLong(0))
                 .incrementAndGet();
 
-        URI uri = exchange.getRequestURI();
-        if ("/".equals(uri.getPath())) {
-            exchange.getResponseHeaders().add("Location", "/index.html");
-            exchange.sendResponseHeaders(302, -1);
-            exchange.close();
+        if (reverseProxy.isEnabled()) {
+            reverseProxy.forward(exchange);
             return;
         }
 
-        String resp = "<html><body><h1>Welcome to DoS Test Server</h1></body></html>";
-        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
-        byte[] bs = resp.getBytes();
-        exchange.sendResponseHeaders(200, bs.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bs);
+        if ("/".equals(exchange.getRequestURI().getRawPath())) {
+            HttpResponses.redirectToIndex(exchange);
+            return;
         }
+
+        HttpResponses.index(exchange);
     };
 }
@@ -0,0 +1,95 @@
+package org.example.core;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Detection and admission limits as one immutable snapshot, published through
+ * {@link SharedData#thresholds}. The admin API, config and UI swap in a whole
+ * new snapshot; the handler loads it once per request and the detection tick
+ * once per tick, so neither ever sees half of an update.
+ */
+public final class Thresholds {
+    public static final Thresholds DEFAULTS =
+            new Thresholds(369, 1, 3, false, 200, 400, EntropyDetector.SheddingMode.NONE, 200);
+
+    public final int                          hardLimit;
+    public final int                          minLimit;
+    public final int                          cooldownTicks; // consecutive calm ticks before an unblock
+    public final boolean                      rateLimit;
+    public final int                          rate;          // tokens per second
+    public final int                          burst;         // bucket capacity
+    public final EntropyDetector.SheddingMode shedding;
+    public final int                          minDistinct;
+
+    private Thresholds(int hardLimit, int minLimit, int cooldownTicks, boolean rateLimit, int rate, int burst,
+                       EntropyDetector.SheddingMode shedding, int minDistinct) {
+        this.hardLimit     = hardLimit;
+        this.minLimit      = minLimit;
+        this.cooldownTicks = cooldownTicks;
+        this.rateLimit     = rateLimit;
+        this.rate          = rate;
+        this.burst         = burst;
+        this.shedding      = shedding;
+        this.minDistinct   = minDistinct;
+    }
+
+    public Thresholds with(String key, String value) {
+        return with(Map.of(key, value));
+    }
+
+    /**
+     * @return A copy with the given keys changed. Every key is checked before the
+     *         copy exists, so a bad map changes nothing.
+     * @throws IllegalArgumentException on an unknown key or a bad value
+     */
+    public Thresholds with(Map<String, String> changes) {
+        int     hard = hardLimit, min = minLimit, cooldown = cooldownTicks, r = rate, b = burst;
+        int     distinct = minDistinct;
+        boolean limit = rateLimit;
+        EntropyDetector.SheddingMode shed = shedding;
+        for (Map.Entry<String, String> c : changes.entrySet()) {
+            String k = c.getKey(), v = c.getValue();
+            switch (k) {
+                case "hardLimit":     hard     = nonNegative(k, v); break;
+                case "minLimit":      min      = nonNegative(k, v); break;
+                case "cooldownTicks": cooldown = nonNegative(k, v); break;
+                case "rate":          r        = Math.max(1, nonNegative(k, v)); break;
+                case "burst":         b        = Math.max(1, Math.min(nonNegative(k, v), 2_000_000)); break;
+                case "minDistinct":   distinct = nonNegative(k, v); break;
+                case "rateLimit":
+                    if (!"true".equals(v) && !"false".equals(v)) {
+                        throw new IllegalArgumentException("rateLimit must be true or false");
+                    }
+                    limit = Boolean.parseBoolean(v);
+                    break;
+                case "shedding":
+                    shed = EntropyDetector.SheddingMode.valueOf(v.toUpperCase(Locale.ROOT));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown threshold: " + k);
+            }
+        }
+        return new Thresholds(hard, min, cooldown, limit, r, b, shed, distinct);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("hardLimit",     hardLimit);
+        out.put("minLimit",      minLimit);
+        out.put("cooldownTicks", cooldownTicks);
+        out.put("rateLimit",     rateLimit);
+        out.put("rate",          rate);
+        out.put("burst",         burst);
+        out.put("shedding",      shedding.name());
+        out.put("minDistinct",   minDistinct);
+        return out;
+    }
+
+    private static int nonNegative(String key, String v) {
+        int n = Integer.parseInt(v);
+        if (n < 0) throw new IllegalArgumentException(key + " must be >= 0");
+        return n;
+    }
+}
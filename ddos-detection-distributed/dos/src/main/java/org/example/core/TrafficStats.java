@@ -19,6 +19,10 @@ public class TrafficStats {
         }
     }
 
+    public synchronized double last() {
+        return window.isEmpty() ? 0 : window.peekLast();
+    }
+
     public synchronized double mean() {
         return window.isEmpty() ? 0 : sum / window.size();
     }
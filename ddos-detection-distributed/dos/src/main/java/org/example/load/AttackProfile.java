@@ -0,0 +1,151 @@
+package org.example.load;
+
+import org.example.load.SourcePopulation.Distribution;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * A scripted load run read from a properties file: an optional background
+ * population that runs throughout, and a list of phases that run in order.
+ *
+ *   target=http://127.0.0.1:8080/index.html     timeoutMs=1000
+ *   background.rate, background.sources, background.connections
+ *   phases=a,b,...
+ *   phase.NAME.duration    seconds
+ *   phase.NAME.shape       CONSTANT | RAMP | PULSE | LOW_AND_SLOW
+ *   phase.NAME.rate        req/s (RAMP: end rate; PULSE: rate while on)
+ *   phase.NAME.from        RAMP start rate (default 0)
+ *   phase.NAME.onMs/offMs  PULSE on and off periods
+ *   phase.NAME.perSource   LOW_AND_SLOW req/s per source; rate defaults to sources * perSource
+ *   phase.NAME.sources, distribution (UNIFORM|ZIPF|CLUSTERED|ROTATING), zipf, octet, connections
+ *   phase.NAME.rotateSec   redraw the source set every N s (implies ROTATING)
+ *
+ * Unknown keys are rejected so a typo does not silently run with defaults.
+ */
+public class AttackProfile {
+    public enum Shape { CONSTANT, RAMP, PULSE, LOW_AND_SLOW }
+
+    public static class Phase {
+        public final String       name;
+        public final int          durationSec;
+        public final Shape        shape;
+        public final double       rate, from;
+        public final long         onMs, offMs;
+        public final int          connections;
+        public final Distribution distribution;
+        public final int          sources, octet;
+        public final double       zipf;
+        public final long         rotateMs;
+
+        Phase(String name, int durationSec, Shape shape, double rate, double from, long onMs, long offMs,
+              int connections, Distribution distribution, int sources, int octet, double zipf, long rotateMs) {
+            this.name         = name;
+            this.durationSec  = durationSec;
+            this.shape        = shape;
+            this.rate         = rate;
+            this.from         = from;
+            this.onMs         = onMs;
+            this.offMs        = offMs;
+            this.connections  = connections;
+            this.distribution = distribution;
+            this.sources      = sources;
+            this.octet        = octet;
+            this.zipf         = zipf;
+            this.rotateMs     = rotateMs;
+        }
+
+        /** @return Target rate {@code elapsedMs} into the phase. */
+        public double rateAt(long elapsedMs) {
+            switch (shape) {
+                case RAMP:  return from + (rate - from) * Math.min(1.0, elapsedMs / (durationSec * 1000.0));
+                case PULSE: return elapsedMs % (onMs + offMs) < onMs ? rate : 0;
+                default:    return rate;
+            }
+        }
+
+        public SourcePopulation population() {
+            return new SourcePopulation(octet, distribution, sources, zipf, rotateMs);
+        }
+    }
+
+    public final String      target;
+    public final int         timeoutMs;
+    public final double      backgroundRate;
+    public final int         backgroundSources, backgroundConnections;
+    public final List<Phase> phases;
+
+    private AttackProfile(Properties p) {
+        target                = p.getProperty("target", "http://127.0.0.1:8080/index.html").trim();
+        timeoutMs             = intOf(p, "timeoutMs", 1000);
+        backgroundRate        = doubleOf(p, "background.rate", 0);
+        backgroundSources     = intOf(p, "background.sources", 1000);
+        backgroundConnections = intOf(p, "background.connections", 8);
+
+        List<String> known = new ArrayList<>(List.of("target", "timeoutMs", "phases",
+                "background.rate", "background.sources", "background.connections"));
+        List<Phase> list = new ArrayList<>();
+        for (String name : p.getProperty("phases", "").split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) continue;
+            String k = "phase." + name + ".";
+            for (String key : new String[]{"duration", "shape", "rate", "from", "onMs", "offMs", "perSource",
+                    "sources", "distribution", "zipf", "octet", "connections", "rotateSec"}) {
+                known.add(k + key);
+            }
+            Shape shape = Shape.valueOf(p.getProperty(k + "shape", "CONSTANT").trim().toUpperCase(Locale.ROOT));
+            int sources = intOf(p, k + "sources", 1);
+            double rate = shape == Shape.LOW_AND_SLOW && p.getProperty(k + "rate") == null
+                    ? sources * doubleOf(p, k + "perSource", 1.0)
+                    : doubleOf(p, k + "rate", 0);
+            long rotateMs = (long) (doubleOf(p, k + "rotateSec", 0) * 1000);
+            Distribution dist = rotateMs > 0 ? Distribution.ROTATING
+                    : Distribution.valueOf(p.getProperty(k + "distribution", "UNIFORM").trim().toUpperCase(Locale.ROOT));
+            int duration = intOf(p, k + "duration", 0);
+            if (duration <= 0) throw new IllegalArgumentException(k + "duration must be > 0");
+            long on = intOf(p, k + "onMs", 1000), off = intOf(p, k + "offMs", 1000);
+            if (shape == Shape.PULSE && on + off <= 0) throw new IllegalArgumentException(k + "onMs+offMs must be > 0");
+            list.add(new Phase(name, duration, shape, rate, doubleOf(p, k + "from", 0), on, off,
+                    intOf(p, k + "connections", 16), dist, sources, intOf(p, k + "octet", 10),
+                    doubleOf(p, k + "zipf", 1.0), rotateMs > 0 ? rotateMs : 10_000));
+        }
+        if (list.isEmpty()) throw new IllegalArgumentException("Profile has no phases");
+        for (String key : p.stringPropertyNames()) {
+            if (!known.contains(key)) throw new IllegalArgumentException("Unknown profile key: " + key);
+        }
+        phases = Collections.unmodifiableList(list);
+    }
+
+    public static AttackProfile load(Path file) throws IOException {
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(file)) {
+            p.load(r);
+        }
+        return new AttackProfile(p);
+    }
+
+    public static AttackProfile of(Properties p) {
+        return new AttackProfile(p);
+    }
+
+    public int totalSeconds() {
+        return phases.stream().mapToInt(ph -> ph.durationSec).sum();
+    }
+
+    private static int intOf(Properties p, String key, int def) {
+        String v = p.getProperty(key);
+        return v == null ? def : Integer.parseInt(v.trim());
+    }
+
+    private static double doubleOf(Properties p, String key, double def) {
+        String v = p.getProperty(key);
+        return v == null ? def : Double.parseDouble(v.trim());
+    }
+}
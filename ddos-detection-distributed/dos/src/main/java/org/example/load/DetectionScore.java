@@ -0,0 +1,54 @@
+package org.example.load;
+
+import org.example.core.SharedData;
+
+import java.util.function.Predicate;
+
+/**
+ * Scores the monitor's current block set against known attacker sources.
+ * Every source the server has seen counts: an attacker is a true positive if
+ * blocked and a false negative otherwise; a blocked benign source is a false
+ * positive.
+ */
+public class DetectionScore {
+    public final long truePositives, falsePositives, falseNegatives, benignSeen;
+
+    private DetectionScore(long tp, long fp, long fn, long benign) {
+        this.truePositives  = tp;
+        this.falsePositives = fp;
+        this.falseNegatives = fn;
+        this.benignSeen     = benign;
+    }
+
+    public static DetectionScore of(Predicate<String> isAttacker) {
+        long tp = 0, fp = 0, fn = 0, benign = 0;
+        for (String ip : SharedData.attemptsByIp.keySet()) {
+            boolean blocked = SharedData.blockedIPs.contains(ip);
+            if (isAttacker.test(ip)) {
+                if (blocked) tp++; else fn++;
+            } else {
+                benign++;
+                if (blocked) fp++;
+            }
+        }
+        return new DetectionScore(tp, fp, fn, benign);
+    }
+
+    /** @return Blocked sources that were attackers; 1 when nothing is blocked. */
+    public double precision() {
+        long blocked = truePositives + falsePositives;
+        return blocked == 0 ? 1 : truePositives / (double) blocked;
+    }
+
+    /** @return Attacker sources seen that are blocked. */
+    public double recall() {
+        long attackers = truePositives + falseNegatives;
+        return attackers == 0 ? 0 : truePositives / (double) attackers;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("precision %.3f, recall %.3f (TP %d, FP %d, FN %d)",
+                precision(), recall(), truePositives, falsePositives, falseNegatives);
+    }
+}
@@ -0,0 +1,334 @@
+package org.example.load;
+
+import org.example.util.LatencyHistogram;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-loop HTTP/1.1 load generator. Each {@link Group} has a target rate and
+ * a pool of keep-alive connections, each driven by one virtual thread. Send
+ * times come from a shared schedule (one slot every 1/rate seconds), not from
+ * when the previous response arrived, so a slow server does not slow the
+ * offered load down. Requests carry the group's source in X-Forwarded-For.
+ * Latency is measured from each request's intended send time, so time spent
+ * queued behind a stalled connection is counted rather than omitted.
+ */
+public class LoadGenerator {
+    // Waits shorter than this are not worth a park/unpark round trip
+    private static final long SPIN_THRESHOLD_NS = 50_000;
+
+    /** One client population with its own rate, sources and connections. */
+    public class Group {
+        public final String name;
+        public final LongAdder sent      = new LongAdder();
+        public final LongAdder served    = new LongAdder();  // 2xx/3xx
+        public final LongAdder forbidden = new LongAdder();  // 403
+        public final LongAdder limited   = new LongAdder();  // 429/503
+        public final LongAdder other     = new LongAdder();
+        public final LongAdder timeouts  = new LongAdder();
+        public final LongAdder errors    = new LongAdder();
+
+        // Intended send time -> response (or timeout), by outcome
+        public final LatencyHistogram servedLatency    = new LatencyHistogram();
+        public final LatencyHistogram forbiddenLatency = new LatencyHistogram();
+        public final LatencyHistogram timeoutLatency   = new LatencyHistogram();
+        public final LatencyHistogram otherLatency     = new LatencyHistogram();  // 429/503, other codes, errors
+        // Actual send time -> response, for comparison; this is what a closed-loop client would report
+        public final LatencyHistogram serviceTime      = new LatencyHistogram();
+
+        private final int              connections;
+        private final List<Thread>     threads = new CopyOnWriteArrayList<>();
+        private volatile Schedule      schedule;
+        private volatile Supplier<String> sources;
+        private volatile boolean       active = true;
+
+        Group(String name, int connections, double rate, Supplier<String> sources) {
+            this.name        = name;
+            this.connections = connections;
+            this.sources     = sources;
+            this.schedule    = new Schedule(rate, System.nanoTime());
+        }
+
+        /**
+         * Target requests per second; 0 pauses the group. Takes effect immediately:
+         * the new schedule starts now, and lanes parked on a slot of the old one
+         * are woken to claim one on the new.
+         */
+        public synchronized void setRate(double rps) {
+            Schedule old = schedule;
+            long now = System.nanoTime();
+            // Keep a backlog the old schedule had not caught up with, but never
+            // replay slots missed while paused
+            long anchor = old.rate <= 0 ? now : Math.min(old.next.get(), now);
+            schedule = new Schedule(rps, anchor);
+            for (Thread t : threads) LockSupport.unpark(t);
+        }
+
+        public double getRate()                        { return schedule.rate; }
+        public void   setSources(Supplier<String> s)   { this.sources = s; }
+        public void   resetLatency() {
+            servedLatency.reset(); forbiddenLatency.reset(); timeoutLatency.reset();
+            otherLatency.reset(); serviceTime.reset();
+        }
+        public long   completed() {
+            return served.sum() + forbidden.sum() + limited.sum() + other.sum() + timeouts.sum() + errors.sum();
+        }
+
+        /** @return How far the schedule is behind the clock, in ms (0 if on time). */
+        public double lagMillis() {
+            return Math.max(0, System.nanoTime() - schedule.next.get()) / 1e6;
+        }
+
+        // Claims the next send slot, waits for it, and returns its intended time; -1 when stopping.
+        long awaitSlot() {
+            while (running && active) {
+                Schedule s = schedule;
+                if (s.intervalNs <= 0) {
+                    LockSupport.parkNanos(10_000_000);
+                    continue;
+                }
+                long slot = s.next.getAndAdd(s.intervalNs);
+                long wait = slot - System.nanoTime();
+                while (wait > SPIN_THRESHOLD_NS && running && schedule == s) {
+                    LockSupport.parkNanos(wait);
+                    wait = slot - System.nanoTime();
+                }
+                // The rate changed while we waited: this slot belongs to the old schedule
+                if (schedule != s) continue;
+                return slot;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * One rate's send slots, every {@code intervalNs} from {@code next}. A rate
+     * change swaps in a new schedule, so a lane still claiming on the old one
+     * cannot push the new one's slots back.
+     */
+    private static final class Schedule {
+        final double     rate;
+        final long       intervalNs;   // 0 = paused
+        final AtomicLong next;
+
+        Schedule(double rate, long startNs) {
+            this.rate       = Math.max(0, rate);
+            this.intervalNs = this.rate > 0 ? Math.max(1, (long) (1e9 / this.rate)) : 0;
+            this.next       = new AtomicLong(startNs);
+        }
+    }
+
+    private final URI    target;
+    private final byte[] requestPrefix, requestSuffix;
+    private final List<Group> groups = new CopyOnWriteArrayList<>();
+    private final List<Thread> lanes = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private volatile int     timeoutMs = 1000;
+
+    public LoadGenerator(URI target) {
+        this.target = target;
+        String path = target.getRawPath() == null || target.getRawPath().isEmpty() ? "/" : target.getRawPath();
+        if (target.getRawQuery() != null) path += "?" + target.getRawQuery();
+        String host = target.getHost() + (target.getPort() > 0 ? ":" + target.getPort() : "");
+        this.requestPrefix = ("GET " + path + " HTTP/1.1\r\nHost: " + host + "\r\nX-Forwarded-For: ")
+                .getBytes(StandardCharsets.US_ASCII);
+        this.requestSuffix = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public void setTimeoutMs(int timeoutMs) { this.timeoutMs = timeoutMs; }
+    public List<Group> getGroups()          { return groups; }
+    public boolean isRunning()              { return running; }
+
+    public Group addGroup(String name, int connections, double rate, Supplier<String> sources) {
+        Group g = new Group(name, connections, rate, sources);
+        groups.add(g);
+        if (running) startLanes(g);
+        return g;
+    }
+
+    public void removeGroup(Group g) {
+        g.active = false;
+        groups.remove(g);
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (Group g : groups) {
+            g.schedule = new Schedule(g.schedule.rate, System.nanoTime());
+            startLanes(g);
+        }
+    }
+
+    public synchronized void stop() {
+        running = false;
+        for (Thread t : lanes) t.interrupt();
+        lanes.clear();
+        for (Group g : groups) g.threads.clear();
+    }
+
+    private void startLanes(Group g) {
+        for (int i = 0; i < g.connections; i++) {
+            Thread t = Thread.ofVirtual().name("load-" + g.name + "-" + i).unstarted(() -> lane(g));
+            g.threads.add(t);
+            lanes.add(t);
+            t.start();
+        }
+    }
+
+    private void lane(Group g) {
+        Connection conn = null;
+        byte[] buf = new byte[requestPrefix.length + 64 + requestSuffix.length];
+        System.arraycopy(requestPrefix, 0, buf, 0, requestPrefix.length);
+        while (true) {
+            long intended = g.awaitSlot();
+            if (intended < 0) break;
+            String ip = g.sources.get();
+            int len = requestPrefix.length;
+            for (int i = 0; i < ip.length() && i < 64; i++) buf[len++] = (byte) ip.charAt(i);
+            System.arraycopy(requestSuffix, 0, buf, len, requestSuffix.length);
+            len += requestSuffix.length;
+            g.sent.increment();
+            long sentNs = System.nanoTime();
+            try {
+                if (conn == null) conn = new Connection(target, timeoutMs);
+                int status = conn.exchange(buf, len);
+                long now = System.nanoTime();
+                g.serviceTime.record(now - sentNs);
+                if (status >= 200 && status < 400) {
+                    g.served.increment();
+                    g.servedLatency.record(now - intended);
+                } else if (status == 403) {
+                    g.forbidden.increment();
+                    g.forbiddenLatency.record(now - intended);
+                } else {
+                    if (status == 429 || status == 503) g.limited.increment();
+                    else                                g.other.increment();
+                    g.otherLatency.record(now - intended);
+                }
+                if (conn.closeRequested) { conn.close(); conn = null; }
+            } catch (SocketTimeoutException e) {
+                g.timeouts.increment();
+                g.timeoutLatency.record(System.nanoTime() - intended);
+                if (conn != null) conn.close();
+                conn = null;
+            } catch (IOException e) {
+                // Includes malformed responses; the connection is not reused after either
+                g.errors.increment();
+                g.otherLatency.record(System.nanoTime() - intended);
+                if (conn != null) conn.close();
+                conn = null;
+            }
+        }
+        if (conn != null) conn.close();
+    }
+
+    /** Minimal keep-alive HTTP/1.1 exchange: Content-Length, chunked, or close-delimited bodies. */
+    private static class Connection {
+        final Socket       socket;
+        final InputStream  in;
+        final OutputStream out;
+        final StringBuilder line = new StringBuilder(128);
+        boolean closeRequested;
+
+        Connection(URI target, int timeoutMs) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(target.getHost(),
+                    target.getPort() > 0 ? target.getPort() : 80), timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+            in  = new BufferedInputStream(socket.getInputStream(), 8192);
+            out = socket.getOutputStream();
+        }
+
+        int exchange(byte[] request, int len) throws IOException {
+            out.write(request, 0, len);
+            out.flush();
+
+            String status = readLine();
+            if (status.length() < 12) throw new IOException("Bad status line: " + status);
+            int code = (int) number(status.substring(9, 12), 10);
+            long contentLength = -1;
+            boolean chunked = false;
+            closeRequested = status.startsWith("HTTP/1.0");
+            String h;
+            while (!(h = readLine()).isEmpty()) {
+                int colon = h.indexOf(':');
+                if (colon <= 0) continue;
+                String name  = h.substring(0, colon).trim();
+                String value = h.substring(colon + 1).trim();
+                if (name.equalsIgnoreCase("Content-Length"))         contentLength = number(value, 10);
+                else if (name.equalsIgnoreCase("Transfer-Encoding")) chunked = value.equalsIgnoreCase("chunked");
+                else if (name.equalsIgnoreCase("Connection"))        closeRequested |= value.equalsIgnoreCase("close");
+            }
+            if (chunked) {
+                long size;
+                while ((size = number(readLine().split(";")[0].trim(), 16)) > 0) {
+                    skip(size);
+                    readLine();
+                }
+                while (!readLine().isEmpty()) { /* trailers */ }
+            } else if (contentLength >= 0) {
+                skip(contentLength);
+            } else if (code >= 200 && code != 204 && code != 304) {
+                while (in.read() >= 0) { /* body runs to EOF */ }
+                closeRequested = true;
+            }
+            return code;
+        }
+
+        // A response we cannot parse fails the request like a broken connection
+        private static long number(String s, int radix) throws IOException {
+            try {
+                long v = Long.parseLong(s, radix);
+                if (v < 0) throw new NumberFormatException("negative");
+                return v;
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed response: " + s, e);
+            }
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            int c;
+            while ((c = in.read()) >= 0) {
+                if (c == '\n') {
+                    int n = line.length();
+                    if (n > 0 && line.charAt(n - 1) == '\r') line.setLength(n - 1);
+                    return line.toString();
+                }
+                line.append((char) c);
+            }
+            throw new IOException("Connection closed");
+        }
+
+        private void skip(long n) throws IOException {
+            while (n > 0) {
+                long k = in.skip(n);
+                if (k <= 0) {
+                    if (in.read() < 0) throw new IOException("Connection closed");
+                    k = 1;
+                }
+                n -= k;
+            }
+        }
+
+        void close() {
+            try { socket.close(); } catch (IOException ignored) {}
+        }
+    }
+}
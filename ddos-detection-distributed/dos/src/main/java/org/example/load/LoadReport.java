@@ -0,0 +1,37 @@
+package org.example.load;
+
+import org.example.util.LatencyHistogram;
+
+import java.util.List;
+
+/** Plain-text tables of per-group outcomes and latency, shared by the simulator and the benchmarks. */
+public class LoadReport {
+    private LoadReport() {}
+
+    /**
+     * One row per group and outcome, latency measured from the intended send
+     * time. Outcomes with no samples are left out.
+     */
+    public static String latencyTable(List<LoadGenerator.Group> groups) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-14s | %-8s | %-10s | %-9s | %-9s | %-9s | %-9s | %-9s%n",
+                "Group", "Outcome", "Count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        sb.append("-".repeat(98)).append(System.lineSeparator());
+        for (LoadGenerator.Group g : groups) {
+            row(sb, g.name, "served",  g.servedLatency);
+            row(sb, g.name, "403",     g.forbiddenLatency);
+            row(sb, g.name, "timeout", g.timeoutLatency);
+            row(sb, g.name, "other",   g.otherLatency);
+            row(sb, g.name, "service", g.serviceTime);
+        }
+        return sb.toString();
+    }
+
+    private static void row(StringBuilder sb, String group, String outcome, LatencyHistogram h) {
+        if (h.getCount() == 0) return;
+        sb.append(String.format("%-14s | %-8s | %-10d | %-9.2f | %-9.2f | %-9.2f | %-9.2f | %-9.2f%n",
+                group, outcome, h.getCount(),
+                h.getValueAtPercentile(50) / 1e6, h.getValueAtPercentile(90) / 1e6,
+                h.getValueAtPercentile(99) / 1e6, h.getValueAtPercentile(99.9) / 1e6, h.getMax() / 1e6));
+    }
+}
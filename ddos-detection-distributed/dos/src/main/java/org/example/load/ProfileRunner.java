@@ -0,0 +1,92 @@
+package org.example.load;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Plays an {@link AttackProfile} through a {@link LoadGenerator}: each phase
+ * gets its own load group whose rate is re-targeted every few milliseconds
+ * from the phase shape, and is removed when the phase ends. Groups are kept
+ * after they finish so the run can be reported as a whole.
+ */
+public class ProfileRunner {
+    private static final long CONTROL_MS = 20;
+
+    private final AttackProfile profile;
+    private final LoadGenerator generator;
+    private final List<LoadGenerator.Group> groups = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean stopped;
+    private volatile String  phaseName = "-";
+
+    public ProfileRunner(AttackProfile profile, URI target) {
+        this.profile   = profile;
+        this.generator = new LoadGenerator(target);
+        generator.setTimeoutMs(profile.timeoutMs);
+    }
+
+    public List<LoadGenerator.Group> getGroups() { return groups; }
+    public String currentPhase()                 { return phaseName; }
+    public void   stop()                         { stopped = true; }
+
+    /**
+     * Runs every phase on the calling thread, then stops the generator.
+     * @param status   Receives one progress line every {@code statusMs}.
+     */
+    public void run(Consumer<String> status, long statusMs) throws InterruptedException {
+        if (profile.backgroundRate > 0) {
+            groups.add(generator.addGroup("background", profile.backgroundConnections, profile.backgroundRate,
+                    new SourcePopulation(172, SourcePopulation.Distribution.UNIFORM, profile.backgroundSources)));
+        }
+        generator.start();
+        Sampler sampler = new Sampler();
+        long nextStatus = System.currentTimeMillis() + statusMs;
+        try {
+            for (int i = 0; i < profile.phases.size() && !stopped; i++) {
+                AttackProfile.Phase ph = profile.phases.get(i);
+                phaseName = ph.name + " (" + (i + 1) + "/" + profile.phases.size() + ", " + ph.shape + ")";
+                LoadGenerator.Group g = generator.addGroup(ph.name, ph.connections, ph.rateAt(0), ph.population());
+                groups.add(g);
+                long start = System.currentTimeMillis(), end = start + ph.durationSec * 1000L;
+                long now;
+                while ((now = System.currentTimeMillis()) < end && !stopped) {
+                    // Each change restarts the group's schedule; steady phases keep theirs
+                    double rate = ph.rateAt(now - start);
+                    if (rate != g.getRate()) g.setRate(rate);
+                    if (now >= nextStatus) {
+                        status.accept(phaseName + ": " + sampler.sample(g.getRate()));
+                        nextStatus = now + statusMs;
+                    }
+                    Thread.sleep(CONTROL_MS);
+                }
+                generator.removeGroup(g);
+            }
+        } finally {
+            generator.stop();
+            phaseName = stopped ? "stopped" : "done";
+        }
+    }
+
+    // Rates across all groups since the previous sample
+    private class Sampler {
+        private long lastDone, lastForbidden, lastNs = System.nanoTime();
+
+        String sample(double phaseTarget) {
+            long done = 0, forbidden = 0, now = System.nanoTime();
+            double target = phaseTarget + profile.backgroundRate;
+            synchronized (groups) {
+                for (LoadGenerator.Group g : groups) {
+                    done      += g.completed();
+                    forbidden += g.forbidden.sum();
+                }
+            }
+            double sec = (now - lastNs) / 1e9;
+            String line = String.format("target %,.0f req/s, achieved %,.0f req/s, 403 %,.0f/s",
+                    target, (done - lastDone) / sec, (forbidden - lastForbidden) / sec);
+            lastDone = done; lastForbidden = forbidden; lastNs = now;
+            return line;
+        }
+    }
+}
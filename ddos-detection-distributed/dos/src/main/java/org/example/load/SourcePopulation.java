@@ -0,0 +1,107 @@
+package org.example.load;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * A synthetic set of client addresses inside one /8, sampled per request.
+ *   UNIFORM   - every source equally likely, spread across the /8
+ *   ZIPF      - source k drawn with weight 1/k^s (a few heavy hitters, a long tail)
+ *   CLUSTERED - sources packed into consecutive hosts of as few /24s as possible
+ *   ROTATING  - uniform over a set that is redrawn every {@code rotateMs} (spoofed churn)
+ * Membership is by first octet, so blocked addresses can be attributed back to
+ * the population that sent them.
+ */
+public class SourcePopulation implements Supplier<String> {
+    public enum Distribution { UNIFORM, ZIPF, CLUSTERED, ROTATING }
+
+    private static final int SPREAD = 0x9E3779B1;   // odd, so i * SPREAD is a bijection mod 2^24
+
+    public final int          firstOctet;
+    public final Distribution distribution;
+    public final int          size;
+    private final String      prefix;
+    private final double[]    cdf;          // ZIPF only
+    private final long        rotateMs;
+    private final long        startMs = System.currentTimeMillis();
+
+    public SourcePopulation(int firstOctet, Distribution distribution, int size) {
+        this(firstOctet, distribution, size, 1.0, 10_000);
+    }
+
+    /**
+     * @param zipfExponent Skew for ZIPF; 1.0 is classic Zipf.
+     * @param rotateMs     How long a ROTATING set lives before it is redrawn.
+     */
+    public SourcePopulation(int firstOctet, Distribution distribution, int size, double zipfExponent, long rotateMs) {
+        if (firstOctet < 1 || firstOctet > 254) throw new IllegalArgumentException("Bad first octet: " + firstOctet);
+        if (size < 1 || size > (1 << 24))       throw new IllegalArgumentException("Bad population size: " + size);
+        this.firstOctet   = firstOctet;
+        this.distribution = distribution;
+        this.size         = size;
+        this.prefix       = firstOctet + ".";
+        this.rotateMs     = Math.max(1, rotateMs);
+        this.cdf          = distribution == Distribution.ZIPF ? zipfCdf(size, zipfExponent) : null;
+    }
+
+    /** @return Whether {@code ip} belongs to this population's /8. */
+    public boolean contains(String ip) {
+        return ip.startsWith(prefix);
+    }
+
+    @Override
+    public String get() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        switch (distribution) {
+            case ZIPF: {
+                int k = Arrays.binarySearch(cdf, rnd.nextDouble());
+                return address(k < 0 ? Math.min(-k - 1, size - 1) : k);
+            }
+            case CLUSTERED: {
+                int i = rnd.nextInt(size);
+                // 254 usable hosts per /24; the /24s themselves are spread over the /8
+                int net = ((i / 254) * SPREAD) & 0xFFFF;
+                return format((net << 8) | (i % 254 + 1));
+            }
+            case ROTATING: {
+                long epoch = (System.currentTimeMillis() - startMs) / rotateMs;
+                return format(mix(epoch, rnd.nextInt(size)) & 0xFFFFFF);
+            }
+            default:
+                return address(rnd.nextInt(size));
+        }
+    }
+
+    // Source index -> host part, spread so neighbouring indices land in different /24s
+    private String address(int i) {
+        return format((i * SPREAD) & 0xFFFFFF);
+    }
+
+    private String format(int host) {
+        return prefix + ((host >>> 16) & 255) + "." + ((host >>> 8) & 255) + "." + (host & 255);
+    }
+
+    private static int mix(long epoch, int i) {
+        long z = epoch * 0x9E3779B97F4A7C15L + i;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (z ^ (z >>> 33));
+    }
+
+    private static double[] zipfCdf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, s);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    @Override
+    public String toString() {
+        return distribution + " x" + size + " in " + firstOctet + ".0.0.0/8";
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.load;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An endless stream of tcpdump-style lines ({@code tcpdump -l -n}) for
+ * feeding the capture pipeline without tcpdump or sudo:
+ *   12:34:56.789012 IP 10.1.2.3.51234 > 127.0.0.1.8080: Flags [S], seq 1, win 64240, length 0
+ * Sources come from a {@link SourcePopulation} and TCP flags from a weighted
+ * mix. Lines are released on an open-loop schedule of {@code rate} per second
+ * (0 = as fast as the reader takes them), in batches of about a millisecond.
+ */
+public class SyntheticCapture extends InputStream {
+    private static final String DEFAULT_FLAGS = "S=50,.=35,P.=10,F.=3,R=2";
+
+    private final SourcePopulation sources;
+    private final double           rate;
+    private final byte[]           dst;
+    private final String[]         flags;
+    private final int[]            flagWeights;   // cumulative
+    private byte[]                 buf = new byte[64 * 1024];   // grows if a batch does not fit
+    private int  pos, limit;
+    private long emitted;
+    private final long startNs = System.nanoTime();
+
+    /**
+     * @param flagMix Weighted tcpdump flag strings, e.g. {@code "S=60,.=30,P.=10"}; null for a default mix.
+     */
+    public SyntheticCapture(SourcePopulation sources, double rate, int dstPort, String flagMix) {
+        this.sources = sources;
+        this.rate    = Math.max(0, rate);
+        this.dst     = (" > 127.0.0.1." + dstPort + ": Flags [").getBytes(StandardCharsets.US_ASCII);
+        String[] parts = (flagMix == null || flagMix.isBlank() ? DEFAULT_FLAGS : flagMix).split(",");
+        flags       = new String[parts.length];
+        flagWeights = new int[parts.length];
+        int sum = 0;
+        for (int i = 0; i < parts.length; i++) {
+            int eq = parts[i].lastIndexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Bad flag weight: " + parts[i]);
+            flags[i] = parts[i].substring(0, eq).trim();
+            sum += Integer.parseInt(parts[i].substring(eq + 1).trim());
+            flagWeights[i] = sum;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("Flag weights must add up to more than 0");
+    }
+
+    /** @return Lines handed to the reader so far. */
+    public long emitted() {
+        return emitted;
+    }
+
+    @Override
+    public int read() {
+        if (pos == limit) fill();
+        return buf[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) return 0;
+        if (pos == limit) fill();
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(buf, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return limit - pos;
+    }
+
+    private void fill() {
+        int batch = rate > 0 ? (int) Math.max(1, Math.min(rate / 1000, 512)) : 512;
+        if (rate > 0) {
+            // Wait for the intended time of the first line in this batch
+            long due = startNs + (long) (emitted * 1e9 / rate);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+        }
+        pos = 0;
+        limit = 0;
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        String ts = timestamp();
+        for (int i = 0; i < batch; i++) {
+            limit = put(ts);
+            limit = put(" IP ");
+            limit = put(sources.get());
+            limit = put(".");
+            limit = put(Integer.toString(1024 + rnd.nextInt(64_000)));
+            ensure(dst.length);
+            System.arraycopy(dst, 0, buf, limit, dst.length);
+            limit += dst.length;
+            limit = put(pickFlags(rnd.nextInt(flagWeights[flagWeights.length - 1])));
+            limit = put("], seq ");
+            limit = put(Integer.toUnsignedString(rnd.nextInt()));
+            limit = put(", win 64240, length 0\n");
+        }
+        emitted += batch;
+    }
+
+    private String pickFlags(int r) {
+        for (int i = 0; i < flagWeights.length; i++) {
+            if (r < flagWeights[i]) return flags[i];
+        }
+        return flags[flags.length - 1];
+    }
+
+    private int put(String s) {
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) buf[limit + i] = (byte) s.charAt(i);
+        return limit + n;
+    }
+
+    // Long sources or flag strings can push a 512-line batch past the buffer
+    private void ensure(int n) {
+        if (limit + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, limit + n));
+    }
+
+    private static String timestamp() {
+        // Local wall-clock time, as tcpdump prints it
+        long micros = LocalTime.now().toNanoOfDay() / 1000;
+        return String.format(Locale.ROOT, "%02d:%02d:%02d.%06d", micros / 3_600_000_000L,
+                micros / 60_000_000 % 60, micros / 1_000_000 % 60, micros % 1_000_000);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.mpj;
+
+/**
+ * One worker's answer for a whole packet batch: counts, per-packet processing
+ * time summary and the source IPs that crossed the block threshold.
+ * Travels as a single MPI.LONG array, see {@link #toLongs()}.
+ */
+public class BatchResult {
+    // Wire layout: rank, packets, valid, total/min/max ns, blocked count, then the blocked IPv4 addresses
+    static final int HEADER = 7;
+
+    private final int processorRank;
+    private final int packets;
+    private final int validPackets;
+    private final long totalNanos;
+    private final long minNanos;
+    private final long maxNanos;
+    private final int[] blockedIPs;
+
+    public BatchResult(int processorRank, int packets, int validPackets, long totalNanos,
+                       long minNanos, long maxNanos, int[] blockedIPs) {
+        this.processorRank = processorRank;
+        this.packets       = packets;
+        this.validPackets  = validPackets;
+        this.totalNanos    = totalNanos;
+        this.minNanos      = minNanos;
+        this.maxNanos      = maxNanos;
+        this.blockedIPs    = blockedIPs;
+    }
+
+    public int getProcessorRank()          { return processorRank; }
+    public int getPackets()                { return packets; }
+    public int getValidPackets()           { return validPackets; }
+    public double getTotalProcessingTime() { return totalNanos / 1e6; }
+    public double getMinProcessingTime()   { return minNanos / 1e6; }
+    public double getMaxProcessingTime()   { return maxNanos / 1e6; }
+
+    /** @return The blocked sources in dotted form. */
+    public String[] getBlockedIPs() {
+        String[] out = new String[blockedIPs.length];
+        for (int i = 0; i < out.length; i++) out[i] = PacketBatch.ipToString(blockedIPs[i]);
+        return out;
+    }
+
+    long[] toLongs() {
+        long[] out = new long[HEADER + blockedIPs.length];
+        out[0] = processorRank;
+        out[1] = packets;
+        out[2] = validPackets;
+        out[3] = totalNanos;
+        out[4] = minNanos;
+        out[5] = maxNanos;
+        out[6] = blockedIPs.length;
+        for (int i = 0; i < blockedIPs.length; i++) out[HEADER + i] = blockedIPs[i];
+        return out;
+    }
+
+    static BatchResult fromLongs(long[] in) {
+        int[] blocked = new int[(int) in[6]];
+        for (int i = 0; i < blocked.length; i++) blocked[i] = (int) in[HEADER + i];
+        return new BatchResult((int) in[0], (int) in[1], (int) in[2], in[3], in[4], in[5], blocked);
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "processorRank=" + processorRank +
+                ", packets=" + packets +
+                ", validPackets=" + validPackets +
+                ", totalProcessingTime=" + getTotalProcessingTime() +
+                ", blockedIPs=" + blockedIPs.length +
+                '}';
+    }
+}
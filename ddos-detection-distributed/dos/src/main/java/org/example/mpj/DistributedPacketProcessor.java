@@ -2,14 +2,30 @@ package org.example.mpj;
 
 import mpi.MPI;
 import org.example.core.SharedData;
-import org.example.util.PerformanceTimer;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * MPJ-based distributed packet processor that distributes packet processing
  * across multiple processes and measures processing delays.
+ *
+ * Packets travel in batches: the master sends up to {@link SharedData#mpjBatchSize}
+ * packets at once, or whatever arrived within {@link SharedData#mpjBatchDeadlineMs}
+ * of the first one, and each worker answers with one {@link BatchResult} per batch.
+ * The master parses tcpdump lines itself and ships primitive columns
+ * ({@link PacketBatch}); results come back as a long array, so nothing on the
+ * wire goes through Java serialization. Master and workers must run with the
+ * same batch size.
+ *
+ * Each source IP always goes to the same worker (a hash of the address picks
+ * it), so a worker's per-IP count is the whole count for that IP and the block
+ * threshold means the same as on a single process.
  */
 public class DistributedPacketProcessor {
 
@@ -17,16 +33,32 @@ public class DistributedPacketProcessor {
     private static final int RESULT_TAG = 2;
     private static final int SHUTDOWN_TAG = 3;
 
+    // Longest an idle distributor waits for a packet before re-checking for shutdown
+    private static final long IDLE_POLL_MS = 10;
+
+    private final BlockingQueue<String> source;
+    private final int batchSize;
+    private final long batchDeadlineNs;
     private int rank;
     private int size;
-    private PerformanceTimer timer;
+    private Transport comm;
     private AtomicLong processedPackets;
-    private ConcurrentHashMap<String, Long> processingTimes;
+    private final Map<Integer, AtomicLong> attemptsByIp = new HashMap<>(); // worker only
+    private final AtomicLong skippedLines = new AtomicLong();               // master: not IPv4 packet lines
+    private volatile boolean running = true;
+    private volatile int simulatedWorkMs = 1;
+    private ResultCollector collector;
 
     public DistributedPacketProcessor() {
-        this.timer = new PerformanceTimer();
+        this(SharedData.packetLines, SharedData.mpjBatchSize, SharedData.mpjBatchDeadlineMs);
+    }
+
+    DistributedPacketProcessor(BlockingQueue<String> source, int batchSize, long batchDeadlineMs) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1: " + batchSize);
+        this.source = source;
+        this.batchSize = batchSize;
+        this.batchDeadlineNs = TimeUnit.MILLISECONDS.toNanos(batchDeadlineMs);
         this.processedPackets = new AtomicLong(0);
-        this.processingTimes = new ConcurrentHashMap<>();
     }
 
     /**
@@ -34,8 +66,17 @@ public class DistributedPacketProcessor {
      */
     public void initialize(String[] args) {
         MPI.Init(args);
-        this.rank = MPI.COMM_WORLD.Rank();
-        this.size = MPI.COMM_WORLD.Size();
+        run(new MpiTransport());
+        MPI.Finalize();
+    }
+
+    /**
+     * Runs this rank's role over {@code comm} until shutdown.
+     */
+    void run(Transport comm) {
+        this.comm = comm;
+        this.rank = comm.rank();
+        this.size = comm.size();
 
         System.out.println("Process " + rank + " of " + size + " initialized");
 
@@ -46,10 +87,24 @@ public class DistributedPacketProcessor {
             // Worker process - processes packets
             runWorker();
         }
+    }
 
-        MPI.Finalize();
+    /**
+     * Master only: stop after the packets already queued, then shut the workers down.
+     */
+    public void shutdown() {
+        running = false;
+    }
+
+    /** Per-packet busy time on the workers (default 1 ms); 0 measures messaging alone. */
+    void setSimulatedWorkMs(int ms) {
+        this.simulatedWorkMs = ms;
     }
 
+    /** Master only: packets and result messages seen by the collector. */
+    long resultPackets()  { return collector == null ? 0 : collector.totalPackets; }
+    long resultMessages() { return collector == null ? 0 : collector.totalResults; }
+
     /**
      * Master process: distributes packets to workers and collects results
      */
@@ -57,7 +112,7 @@ public class DistributedPacketProcessor {
         System.out.println("Master process starting packet distribution...");
 
         PacketDistributor distributor = new PacketDistributor(size - 1);
-        ResultCollector collector = new ResultCollector();
+        collector = new ResultCollector(size - 1);
 
         // Start distributor and collector threads
         Thread distributorThread = new Thread(distributor);
@@ -78,80 +133,77 @@ public class DistributedPacketProcessor {
     }
 
     /**
-     * Worker process: receives packets, processes them, and sends back results
+     * Worker process: receives packet batches, processes them, and sends back one result per batch
      */
     private void runWorker() {
         System.out.println("Worker process " + rank + " ready for packet processing...");
 
+        PacketBatch batch = new PacketBatch(batchSize);
         while (true) {
-            // Receive packet data from master
-            String[] packetData = new String[1];
-            MPI.COMM_WORLD.Recv(packetData, 0, 1, MPI.OBJECT, 0, PACKET_TAG);
+            // Receive a batch from master: the count/IP column first, then the others
+            Transport.Envelope env = batch.recvHeader(comm, 0);
 
             // Check for shutdown signal
-            if ("SHUTDOWN".equals(packetData[0])) {
+            if (env.tag == SHUTDOWN_TAG) {
                 System.out.println("Worker " + rank + " shutting down...");
                 break;
             }
+            batch.recvBody(comm, 0, env.tag);
 
-            // Process the packet and measure time
-            timer.start();
-            PacketProcessingResult result = processPacket(packetData[0]);
-            timer.stop();
-
-            // Record processing time
-            result.setProcessingTime(timer.getElapsedMillis());
-            result.setProcessorRank(rank);
-
-            processedPackets.incrementAndGet();
+            long[] result = processBatch(batch).toLongs();
 
-            // Send result back to master
-            PacketProcessingResult[] resultArray = {result};
-            MPI.COMM_WORLD.Send(resultArray, 0, 1, MPI.OBJECT, 0, RESULT_TAG);
+            // Send the batch's result back to master
+            comm.send(result, result.length, 0, RESULT_TAG);
         }
 
+        // Tell the collector this worker is done
+        long[] done = new BatchResult(rank, 0, 0, 0, 0, 0, new int[0]).toLongs();
+        comm.send(done, done.length, 0, SHUTDOWN_TAG);
         System.out.println("Worker " + rank + " processed " + processedPackets.get() + " packets");
     }
 
     /**
-     * Process a single packet and extract relevant information
+     * Processes every packet of a batch and folds the outcomes into one result
      */
-    private PacketProcessingResult processPacket(String packetLine) {
-        PacketProcessingResult result = new PacketProcessingResult();
-        result.setOriginalPacket(packetLine);
-        result.setTimestamp(System.currentTimeMillis());
+    private BatchResult processBatch(PacketBatch batch) {
+        long total = 0, min = Long.MAX_VALUE, max = 0;
+        int[] blocked = new int[batch.size];
+        int nBlocked = 0;
+        for (int i = 0; i < batch.size; i++) {
+            // Process the packet and measure time
+            long start = System.nanoTime();
+            boolean block = processPacket(batch.ip(i));
+            long ns = System.nanoTime() - start;
+
+            total += ns;
+            min = Math.min(min, ns);
+            max = Math.max(max, ns);
+            if (block) blocked[nBlocked++] = batch.ip(i);
+        }
+        processedPackets.addAndGet(batch.size);
+        return new BatchResult(rank, batch.size, batch.size, total, batch.size == 0 ? 0 : min, max,
+                Arrays.copyOf(blocked, nBlocked));
+    }
 
-        try {
-            // Parse packet similar to original PacketConsumer
-            String[] parts = packetLine.split("\\s+");
-            if (parts.length >= 3 && "IP".equals(parts[1])) {
-                String srcPort = parts[2];
-                int idx = srcPort.lastIndexOf('.');
-                if (idx > 0) {
-                    String srcIp = srcPort.substring(0, idx);
-                    result.setSourceIP(srcIp);
-                    result.setValid(true);
-
-                    // Simulate some processing work
-                    Thread.sleep(1); // 1ms processing delay
-
-                    // Check if IP should be blocked (simple threshold check)
-                    long attempts = SharedData.attemptsByIp
-                            .computeIfAbsent(srcIp, k -> new AtomicLong(0))
-                            .incrementAndGet();
-
-                    if (attempts > SharedData.hardLimit) {
-                        result.setShouldBlock(true);
-                        SharedData.blockedIPs.add(srcIp);
-                    }
-                }
+    /**
+     * Counts one packet from {@code srcIp}
+     * @return true when this packet takes the source over the block threshold.
+     */
+    private boolean processPacket(int srcIp) {
+        // Simulate some processing work
+        if (simulatedWorkMs > 0) {
+            try {
+                Thread.sleep(simulatedWorkMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } catch (Exception e) {
-            result.setValid(false);
-            result.setErrorMessage(e.getMessage());
         }
 
-        return result;
+        // Check if IP should be blocked (simple threshold check); reported once, on crossing
+        long attempts = attemptsByIp
+                .computeIfAbsent(srcIp, k -> new AtomicLong(0))
+                .incrementAndGet();
+        return attempts == SharedData.thresholds.get().hardLimit + 1L;
     }
 
     /**
@@ -162,8 +214,17 @@ public class DistributedPacketProcessor {
         System.out.println("Total processes: " + size);
         System.out.println("Master process: 1");
         System.out.println("Worker processes: " + (size - 1));
+        System.out.println("Batch size: " + batchSize + ", deadline: " + batchDeadlineNs / 1_000_000 + " ms");
+        System.out.println("Packets: " + collector.totalPackets + " in " + collector.totalResults + " result messages");
+        System.out.println("Skipped non-IPv4 lines: " + skippedLines.get());
+    }
 
-        // Additional statistics will be collected by ResultCollector
+    /**
+     * Worker rank (1..numWorkers) that owns {@code ip}.
+     */
+    static int owner(int ip, int numWorkers) {
+        // Fibonacci hashing spreads neighbouring addresses across workers
+        return 1 + (int) (((ip * 0x9E3779B9L) & 0xFFFFFFFFL) % numWorkers);
     }
 
     /**
@@ -171,70 +232,116 @@ public class DistributedPacketProcessor {
      */
     private class PacketDistributor implements Runnable {
         private final int numWorkers;
-        private int currentWorker = 1; // Start with worker 1 (rank 0 is master)
+        private final PacketBatch   staging = new PacketBatch(1);
+        private final PacketBatch[] batches;   // per worker rank, index 0 unused
+        private final long[]        firstNs;   // when each pending batch got its first packet
+        private long packetsDistributed;
 
         public PacketDistributor(int numWorkers) {
             this.numWorkers = numWorkers;
+            this.batches = new PacketBatch[numWorkers + 1];
+            this.firstNs = new long[numWorkers + 1];
+            for (int w = 1; w <= numWorkers; w++) batches[w] = new PacketBatch(batchSize);
         }
 
         @Override
         public void run() {
             try {
-                long packetsDistributed = 0;
-
-                while (true) {
-                    // Get packet from the shared queue
-                    String packet = SharedData.packetLines.poll();
-                    if (packet != null) {
-                        // Send packet to next available worker
-                        String[] packetArray = {packet};
-                        MPI.COMM_WORLD.Send(packetArray, 0, 1, MPI.OBJECT, currentWorker, PACKET_TAG);
-
-                        packetsDistributed++;
-                        currentWorker = (currentWorker % numWorkers) + 1; // Round-robin distribution
-
-                        if (packetsDistributed % 1000 == 0) {
-                            System.out.println("Distributed " + packetsDistributed + " packets");
-                        }
-                    } else {
-                        // No packets available, sleep briefly
-                        Thread.sleep(10);
-                    }
+                while (running || !source.isEmpty()) {
+                    String line = source.poll();
+                    if (line == null) line = source.poll(untilNextDeadline(), TimeUnit.NANOSECONDS);
+                    if (line != null) route(line);
+                    sendExpired(System.nanoTime());
                 }
+                for (int w = 1; w <= numWorkers; w++) send(w);
             } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
                 // Send shutdown signal to all workers
                 for (int i = 1; i <= numWorkers; i++) {
-                    String[] shutdownSignal = {"SHUTDOWN"};
-                    MPI.COMM_WORLD.Send(shutdownSignal, 0, 1, MPI.OBJECT, i, PACKET_TAG);
+                    comm.send(new int[]{0}, 1, i, SHUTDOWN_TAG);
                 }
             }
         }
+
+        // Parses the line and appends it to its owner's batch, sending the batch once full
+        private void route(String line) {
+            staging.clear();
+            if (!staging.add(line)) {
+                skippedLines.incrementAndGet();
+                return;
+            }
+            int w = owner(staging.ip(0), numWorkers);
+            PacketBatch batch = batches[w];
+            if (batch.size == 0) firstNs[w] = System.nanoTime();
+            batch.append(staging, 0);
+            if (batch.isFull()) send(w);
+        }
+
+        // Sends every batch whose first packet has waited out the deadline
+        private void sendExpired(long now) {
+            for (int w = 1; w <= numWorkers; w++) {
+                if (batches[w].size > 0 && now - firstNs[w] >= batchDeadlineNs) send(w);
+            }
+        }
+
+        private long untilNextDeadline() {
+            long wait = TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MS), now = System.nanoTime();
+            for (int w = 1; w <= numWorkers; w++) {
+                if (batches[w].size > 0) wait = Math.min(wait, firstNs[w] + batchDeadlineNs - now);
+            }
+            return Math.max(0, wait);
+        }
+
+        private void send(int w) {
+            PacketBatch batch = batches[w];
+            int n = batch.size;
+            if (n == 0) return;
+            batch.send(comm, w, PACKET_TAG);
+            batch.clear();
+
+            long before = packetsDistributed;
+            packetsDistributed += n;
+            if (packetsDistributed / 1000 != before / 1000) {
+                System.out.println("Distributed " + packetsDistributed + " packets");
+            }
+        }
     }
 
     /**
      * Inner class to collect processing results and calculate benchmarks
      */
     private class ResultCollector implements Runnable {
-        private long totalResults = 0;
+        private final int numWorkers;
+        private volatile long totalResults = 0;
+        private volatile long totalPackets = 0;
         private double totalProcessingTime = 0.0;
         private double minProcessingTime = Double.MAX_VALUE;
         private double maxProcessingTime = 0.0;
         private ConcurrentHashMap<Integer, Long> processingCountByWorker = new ConcurrentHashMap<>();
 
+        ResultCollector(int numWorkers) {
+            this.numWorkers = numWorkers;
+        }
+
         @Override
         public void run() {
             try {
-                while (!Thread.currentThread().isInterrupted()) {
-                    // Receive result from any worker
-                    PacketProcessingResult[] resultArray = new PacketProcessingResult[1];
-                    MPI.COMM_WORLD.Recv(resultArray, 0, 1, MPI.OBJECT, MPI.ANY_SOURCE, RESULT_TAG);
-
-                    PacketProcessingResult result = resultArray[0];
-                    processResult(result);
+                int stopped = 0;
+                long[] resultArray = new long[BatchResult.HEADER + batchSize];
+                while (stopped < numWorkers) {
+                    // Receive a batch result from any worker
+                    Transport.Envelope env = comm.recv(resultArray, resultArray.length,
+                            Transport.ANY_SOURCE, Transport.ANY_TAG);
+                    if (env.tag == SHUTDOWN_TAG) {
+                        stopped++;
+                        continue;
+                    }
 
-                    totalResults++;
+                    long before = totalPackets;
+                    processResult(BatchResult.fromLongs(resultArray));
 
-                    if (totalResults % 1000 == 0) {
+                    if (totalPackets / 1000 != before / 1000) {
                         printIntermediateStats();
                     }
                 }
@@ -243,24 +350,34 @@ public class DistributedPacketProcessor {
             }
         }
 
-        private void processResult(PacketProcessingResult result) {
-            double processingTime = result.getProcessingTime();
-            totalProcessingTime += processingTime;
+        private void processResult(BatchResult result) {
+            totalResults++;
+            totalPackets += result.getPackets();
+            totalProcessingTime += result.getTotalProcessingTime();
+            if (result.getPackets() == 0) return;
 
-            if (processingTime < minProcessingTime) {
-                minProcessingTime = processingTime;
+            if (result.getMinProcessingTime() < minProcessingTime) {
+                minProcessingTime = result.getMinProcessingTime();
             }
-            if (processingTime > maxProcessingTime) {
-                maxProcessingTime = processingTime;
+            if (result.getMaxProcessingTime() > maxProcessingTime) {
+                maxProcessingTime = result.getMaxProcessingTime();
             }
 
-            processingCountByWorker.merge(result.getProcessorRank(), 1L, Long::sum);
+            processingCountByWorker.merge(result.getProcessorRank(), (long) result.getPackets(), Long::sum);
+
+            // Workers only count; the blocks take effect here, on the master
+            for (String ip : result.getBlockedIPs()) {
+                if (SharedData.blockedIPs.add(ip)) {
+                    SharedData.logFirewallEvent("Blocked " + ip + " (worker " + result.getProcessorRank() + ")");
+                }
+            }
         }
 
         private void printIntermediateStats() {
-            double avgProcessingTime = totalProcessingTime / totalResults;
+            double avgProcessingTime = totalProcessingTime / totalPackets;
             System.out.println("\n--- Intermediate Processing Stats ---");
-            System.out.println("Total packets processed: " + totalResults);
+            System.out.println("Total packets processed: " + totalPackets);
+            System.out.println("Result messages: " + totalResults);
             System.out.println("Average processing time: " + String.format("%.3f", avgProcessingTime) + " ms");
             System.out.println("Min processing time: " + String.format("%.3f", minProcessingTime) + " ms");
             System.out.println("Max processing time: " + String.format("%.3f", maxProcessingTime) + " ms");
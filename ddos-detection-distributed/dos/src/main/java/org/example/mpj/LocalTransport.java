@@ -0,0 +1,167 @@
+package org.example.mpj;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process {@link Transport}: one mailbox per rank. Object buffers are
+ * Java-serialized on send, as MPJ does for MPI.OBJECT, and primitive arrays
+ * are copied, so per-message cost and bytes on the wire are comparable to a
+ * real run minus the network.
+ */
+class LocalTransport implements Transport {
+    private static final class Message {
+        final int source, tag;
+        final Object payload;   // serialized bytes for Object[], else a copy of the array
+        final boolean objects;
+
+        Message(int source, int tag, Object payload, boolean objects) {
+            this.source  = source;
+            this.tag     = tag;
+            this.payload = payload;
+            this.objects = objects;
+        }
+    }
+
+    /** Counters shared by every rank of one world. */
+    static final class Traffic {
+        final LongAdder messages = new LongAdder();
+        final LongAdder bytes    = new LongAdder();
+        final LongAdder codecNs  = new LongAdder();   // serializing/copying on send plus the reverse on recv
+    }
+
+    private final int rank;
+    private final List<List<Message>> inboxes;
+    private final Traffic traffic;
+
+    private LocalTransport(int rank, List<List<Message>> inboxes, Traffic traffic) {
+        this.rank    = rank;
+        this.inboxes = inboxes;
+        this.traffic = traffic;
+    }
+
+    /** @return One transport per rank, all connected to each other. */
+    static LocalTransport[] world(int size) {
+        List<List<Message>> inboxes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) inboxes.add(new ArrayList<>());
+        Traffic traffic = new Traffic();
+        LocalTransport[] out = new LocalTransport[size];
+        for (int i = 0; i < size; i++) out[i] = new LocalTransport(i, inboxes, traffic);
+        return out;
+    }
+
+    Traffic traffic() {
+        return traffic;
+    }
+
+    @Override
+    public int rank() {
+        return rank;
+    }
+
+    @Override
+    public int size() {
+        return inboxes.size();
+    }
+
+    @Override
+    public void send(Object buf, int count, int dest, int tag) {
+        long start = System.nanoTime();
+        Message m;
+        if (buf instanceof Object[]) {
+            byte[] bytes = serialize((Object[]) buf, count);
+            traffic.bytes.add(bytes.length);
+            m = new Message(rank, tag, bytes, true);
+        } else {
+            Object copy = Array.newInstance(buf.getClass().getComponentType(), count);
+            System.arraycopy(buf, 0, copy, 0, count);
+            traffic.bytes.add((long) count * elementBytes(buf));
+            m = new Message(rank, tag, copy, false);
+        }
+        traffic.codecNs.add(System.nanoTime() - start);
+        traffic.messages.increment();
+        List<Message> inbox = inboxes.get(dest);
+        synchronized (inbox) {
+            inbox.add(m);
+            inbox.notifyAll();
+        }
+    }
+
+    @Override
+    public Envelope recv(Object buf, int count, int source, int tag) {
+        List<Message> inbox = inboxes.get(rank);
+        Message m = null;
+        synchronized (inbox) {
+            while (m == null) {
+                for (Iterator<Message> it = inbox.iterator(); it.hasNext(); ) {
+                    Message c = it.next();
+                    if ((source == ANY_SOURCE || c.source == source) && (tag == ANY_TAG || c.tag == tag)) {
+                        it.remove();
+                        m = c;
+                        break;
+                    }
+                }
+                if (m == null) {
+                    try {
+                        inbox.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted in recv", e);
+                    }
+                }
+            }
+        }
+        long start = System.nanoTime();
+        if (m.objects) {
+            Object[] in = deserialize((byte[]) m.payload);
+            if (in.length > count) throw new IllegalArgumentException("Message of " + in.length + " > buffer " + count);
+            System.arraycopy(in, 0, buf, 0, in.length);
+        } else {
+            int n = Array.getLength(m.payload);
+            if (n > count) throw new IllegalArgumentException("Message of " + n + " > buffer " + count);
+            System.arraycopy(m.payload, 0, buf, 0, n);
+        }
+        traffic.codecNs.add(System.nanoTime() - start);
+        return new Envelope(m.source, m.tag);
+    }
+
+    private static byte[] serialize(Object[] buf, int count) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) out.writeObject(buf[i]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object[] deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            Object[] out = new Object[in.readInt()];
+            for (int i = 0; i < out.length; i++) out[i] = in.readObject();
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int elementBytes(Object buf) {
+        if (buf instanceof long[])  return 8;
+        if (buf instanceof int[])   return 4;
+        if (buf instanceof short[]) return 2;
+        if (buf instanceof byte[])  return 1;
+        throw new IllegalArgumentException("Unsupported buffer: " + buf.getClass());
+    }
+}
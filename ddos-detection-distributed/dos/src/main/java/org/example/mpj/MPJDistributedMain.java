@@ -3,12 +3,14 @@ package org.example.mpj;
 import org.example.core.PacketCapture;
 import org.example.core.PacketConsumer;
 import org.example.core.HttpServerStarter;
+import org.example.core.ServerConfig;
 
 /**
  * Main class for running MPJ-based distributed packet processing.
  * This should be launched with MPJ runtime environment.
  * 
- * Usage: mpjrun.sh -np <number_of_processes> java org.example.mpj.MPJDistributedMain
+ * Usage: mpjrun.sh -np <number_of_processes> java org.example.mpj.MPJDistributedMain [--key=value ...]
+ * Settings are those of {@link ServerConfig}, e.g. --mpjBatchSize=512; every process must get the same ones.
  */
 public class MPJDistributedMain {
     
@@ -16,6 +18,9 @@ public class MPJDistributedMain {
         System.out.println("Starting MPJ Distributed Packet Processing System...");
         
         try {
+            // MPJ's own arguments are not --key=value, so they pass through untouched
+            ServerConfig.apply(args);
+
             // Initialize the distributed packet processor
             DistributedPacketProcessor processor = new DistributedPacketProcessor();
             
@@ -0,0 +1,99 @@
+package org.example.mpj;
+
+import org.example.core.PacketConsumer;
+import org.example.core.SharedData;
+import org.example.load.SourcePopulation;
+import org.example.load.SyntheticCapture;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Runs the DistributedPacketProcessor protocol (master + N workers) in one JVM
+ * over {@link LocalTransport} and sweeps the batch size. Batch size 1 is the
+ * old one-message-per-packet exchange. Worker busy time per packet defaults to
+ * 0 so the messaging cost is what gets measured. Sources are Zipf-distributed,
+ * so the heaviest ones cross the block threshold; every run must block exactly
+ * the IPs whose total count does.
+ *   java org.example.mpj.MessageBatchingBenchmark [packets] [workers] [batchSizes] [workMs] [deadlineMs]
+ */
+public class MessageBatchingBenchmark {
+    public static void main(String[] args) throws Exception {
+        int packets       = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int workers       = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        String[] sizes    = (args.length > 2 ? args[2] : "1,8,32,128,512,2048").split(",");
+        int workMs        = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        int deadlineMs    = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+        List<String> lines = new ArrayList<>(packets);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                new SyntheticCapture(new SourcePopulation(10, SourcePopulation.Distribution.ZIPF, 10_000),
+                        0, 8080, null)))) {
+            for (int i = 0; i < packets; i++) lines.add(br.readLine());
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (String line : lines) counts.merge(PacketConsumer.sourceIp(line), 1, Integer::sum);
+        int hardLimit = SharedData.thresholds.get().hardLimit;
+        long expected = counts.values().stream().filter(c -> c > hardLimit).count();
+
+        System.out.println("=== MPJ MESSAGE BATCHING BENCHMARK ===");
+        System.out.println("Packets: " + packets + ", workers: " + workers + ", work/packet: " + workMs
+                + " ms, deadline: " + deadlineMs + " ms");
+        System.out.println("IPs over hardLimit=" + hardLimit + ": " + expected);
+        System.out.printf("%n%-10s | %-12s | %-10s | %-12s | %-12s | %-14s | %-10s | %-8s%n",
+                "Batch", "Packets/s", "Messages", "Msgs/packet", "Bytes/packet", "Codec ns/pkt", "Time (ms)", "Blocked");
+        System.out.println("-".repeat(108));
+
+        PrintStream out = System.out;
+        run(lines.subList(0, Math.min(packets, 20_000)), workers, 64, workMs, deadlineMs, null);  // warm-up
+        for (String s : sizes) {
+            int batch = Integer.parseInt(s.trim());
+            run(lines, workers, batch, workMs, deadlineMs, out);
+        }
+        System.exit(0);
+    }
+
+    private static void run(List<String> lines, int workers, int batch, int workMs, int deadlineMs,
+                            PrintStream report) throws InterruptedException {
+        SharedData.attemptsByIp.clear();
+        SharedData.blockedIPs.clear();
+        LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>(lines);
+        LocalTransport[] world = LocalTransport.world(workers + 1);
+        DistributedPacketProcessor[] ranks = new DistributedPacketProcessor[workers + 1];
+        Thread[] threads = new Thread[workers + 1];
+        for (int r = 0; r <= workers; r++) {
+            ranks[r] = new DistributedPacketProcessor(queue, batch, deadlineMs);
+            ranks[r].setSimulatedWorkMs(workMs);
+        }
+        // Everything is already queued: the master drains it, then shuts the workers down
+        ranks[0].shutdown();
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        for (int r = 0; r <= workers; r++) {
+            DistributedPacketProcessor p = ranks[r];
+            LocalTransport t = world[r];
+            threads[r] = new Thread(() -> p.run(t), "rank-" + r);
+            threads[r].start();
+        }
+        for (Thread t : threads) t.join();
+        double ms = (System.nanoTime() - start) / 1e6;
+        System.setOut(out);
+
+        if (report == null) return;
+        long done = ranks[0].resultPackets();
+        LocalTransport.Traffic traffic = world[0].traffic();
+        long messages = traffic.messages.sum();
+        report.printf("%-10d | %-12.0f | %-10d | %-12.3f | %-12.1f | %-14.0f | %-10.0f | %-8d%n", batch,
+                done / (ms / 1000), messages, messages / (double) done, traffic.bytes.sum() / (double) done,
+                traffic.codecNs.sum() / (double) done, ms, SharedData.blockedIPs.size());
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.mpj;
+
+import mpi.Datatype;
+import mpi.MPI;
+import mpi.Status;
+
+/** {@link Transport} over MPI.COMM_WORLD; MPI must be initialized. */
+class MpiTransport implements Transport {
+    @Override
+    public int rank() {
+        return MPI.COMM_WORLD.Rank();
+    }
+
+    @Override
+    public int size() {
+        return MPI.COMM_WORLD.Size();
+    }
+
+    @Override
+    public void send(Object buf, int count, int dest, int tag) {
+        MPI.COMM_WORLD.Send(buf, 0, count, type(buf), dest, tag);
+    }
+
+    @Override
+    public Envelope recv(Object buf, int count, int source, int tag) {
+        Status st = MPI.COMM_WORLD.Recv(buf, 0, count, type(buf),
+                source == ANY_SOURCE ? MPI.ANY_SOURCE : source, tag == ANY_TAG ? MPI.ANY_TAG : tag);
+        return new Envelope(st.source, st.tag);
+    }
+
+    private static Datatype type(Object buf) {
+        if (buf instanceof Object[]) return MPI.OBJECT;
+        if (buf instanceof int[])    return MPI.INT;
+        if (buf instanceof long[])   return MPI.LONG;
+        if (buf instanceof short[])  return MPI.SHORT;
+        if (buf instanceof byte[])   return MPI.BYTE;
+        throw new IllegalArgumentException("Unsupported buffer: " + buf.getClass());
+    }
+}
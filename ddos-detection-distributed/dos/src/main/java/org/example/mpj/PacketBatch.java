@@ -0,0 +1,162 @@
+package org.example.mpj;
+
+/**
+ * A batch of parsed packets in column form, as it goes over the wire:
+ *
+ *   MPI.INT    count, then the source IPv4 addresses
+ *   MPI.SHORT  source ports (unsigned 16 bits)
+ *   MPI.BYTE   TCP flags (FIN 0x01, SYN 0x02, RST 0x04, PSH 0x08, ACK 0x10, URG 0x20)
+ *   MPI.LONG   capture time, microseconds since midnight as tcpdump prints it
+ *
+ * 15 bytes per packet instead of the serialized tcpdump line. The four
+ * messages share a tag, and MPI keeps messages between two ranks with the
+ * same tag in order.
+ */
+class PacketBatch {
+    static final int FIN = 0x01, SYN = 0x02, RST = 0x04, PSH = 0x08, ACK = 0x10, URG = 0x20;
+
+    final int[]   ips;     // ips[0] is the count on the wire, packets start at 1
+    final short[] ports;
+    final byte[]  flags;
+    final long[]  timestamps;
+    int size;
+
+    PacketBatch(int capacity) {
+        ips        = new int[capacity + 1];
+        ports      = new short[capacity];
+        flags      = new byte[capacity];
+        timestamps = new long[capacity];
+    }
+
+    int capacity() {
+        return ports.length;
+    }
+
+    boolean isFull() {
+        return size == ports.length;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int ip(int i)   { return ips[i + 1]; }
+    int port(int i) { return ports[i] & 0xFFFF; }
+
+    /**
+     * Parses one tcpdump IPv4 line into the next slot.
+     * @return false (and nothing added) if the line is not an IPv4 packet line.
+     */
+    boolean add(String line) {
+        // "HH:MM:SS.ffffff IP a.b.c.d.port > e.f.g.h.port: Flags [S.], ..."
+        int sp = line.indexOf(' ');
+        if (sp < 0 || !line.startsWith(" IP ", sp)) return false;
+        int src = sp + 4;
+        int end = line.indexOf(' ', src);
+        if (end < 0) return false;
+        int ip = 0, octets = 0, value = 0, digits = 0, port = -1;
+        for (int i = src; i <= end; i++) {
+            char c = i < end ? line.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 5) return false;
+            } else if (c == '.' && digits > 0) {
+                if (octets < 4) {
+                    if (value > 255) return false;
+                    ip = ip << 8 | value;
+                } else if (octets == 4) {
+                    if (value > 0xFFFF) return false;
+                    port = value;
+                } else {
+                    return false;
+                }
+                octets++;
+                value = 0;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+        if (octets != 5) return false;
+
+        ips[size + 1]    = ip;
+        ports[size]      = (short) port;
+        flags[size]      = flags(line, end);
+        timestamps[size] = micros(line, sp);
+        size++;
+        return true;
+    }
+
+    /** Copies packet {@code i} of {@code from} into the next slot. */
+    void append(PacketBatch from, int i) {
+        ips[size + 1]    = from.ips[i + 1];
+        ports[size]      = from.ports[i];
+        flags[size]      = from.flags[i];
+        timestamps[size] = from.timestamps[i];
+        size++;
+    }
+
+    void send(Transport comm, int dest, int tag) {
+        ips[0] = size;
+        comm.send(ips, size + 1, dest, tag);
+        comm.send(ports, size, dest, tag);
+        comm.send(flags, size, dest, tag);
+        comm.send(timestamps, size, dest, tag);
+    }
+
+    /** Receives the rest of a batch whose first message carried {@code tag}; call after {@link #recvHeader}. */
+    void recvBody(Transport comm, int source, int tag) {
+        comm.recv(ports, size, source, tag);
+        comm.recv(flags, size, source, tag);
+        comm.recv(timestamps, size, source, tag);
+    }
+
+    /** Receives the count/IP message from any tag; the caller decides from the tag whether a body follows. */
+    Transport.Envelope recvHeader(Transport comm, int source) {
+        Transport.Envelope env = comm.recv(ips, ips.length, source, Transport.ANY_TAG);
+        size = ips[0];
+        return env;
+    }
+
+    static String ipToString(int ip) {
+        return (ip >>> 24) + "." + (ip >>> 16 & 255) + "." + (ip >>> 8 & 255) + "." + (ip & 255);
+    }
+
+    // Flags [S.] etc. after the destination; 0 if missing
+    private static byte flags(String line, int from) {
+        int open = line.indexOf("Flags [", from);
+        if (open < 0) return 0;
+        int f = 0;
+        for (int i = open + 7; i < line.length(); i++) {
+            switch (line.charAt(i)) {
+                case 'F': f |= FIN; break;
+                case 'S': f |= SYN; break;
+                case 'R': f |= RST; break;
+                case 'P': f |= PSH; break;
+                case '.': f |= ACK; break;
+                case 'U': f |= URG; break;
+                case ']': return (byte) f;
+                default:  break;
+            }
+        }
+        return (byte) f;
+    }
+
+    // HH:MM:SS.ffffff -> microseconds since midnight; -1 if the line has another prefix
+    private static long micros(String line, int len) {
+        if (len != 15 || line.charAt(2) != ':' || line.charAt(5) != ':' || line.charAt(8) != '.') return -1;
+        long h = num(line, 0, 2), m = num(line, 3, 5), s = num(line, 6, 8), f = num(line, 9, 15);
+        if (h < 0 || m < 0 || s < 0 || f < 0) return -1;
+        return ((h * 60 + m) * 60 + s) * 1_000_000 + f;
+    }
+
+    private static long num(String line, int from, int to) {
+        long v = 0;
+        for (int i = from; i < to; i++) {
+            int d = line.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            v = v * 10 + d;
+        }
+        return v;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.mpj;
+
+/**
+ * Point-to-point messages between ranks, in the shape of MPJ's Send/Recv.
+ * Buffers are {@code Object[]} (sent as MPI.OBJECT) or primitive arrays.
+ * {@link MpiTransport} is the real one; {@link LocalTransport} runs every
+ * rank in one JVM, so the protocol can be benchmarked without an MPJ runtime.
+ */
+interface Transport {
+    int ANY_SOURCE = -2;
+    int ANY_TAG    = -2;
+
+    /** Sender and tag of a received message. */
+    final class Envelope {
+        final int source, tag;
+
+        Envelope(int source, int tag) {
+            this.source = source;
+            this.tag    = tag;
+        }
+    }
+
+    int rank();
+
+    int size();
+
+    /** Sends {@code buf[0..count)}; the buffer may be reused once this returns. */
+    void send(Object buf, int count, int dest, int tag);
+
+    /** Blocks for a matching message and copies it into {@code buf}, which must hold at least what was sent. */
+    Envelope recv(Object buf, int count, int source, int tag);
+}
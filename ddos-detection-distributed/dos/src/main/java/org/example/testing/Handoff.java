@@ -0,0 +1,156 @@
+package org.example.testing;
+
+import org.example.util.MpscRing;
+import org.example.util.SpscRing;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A producer-to-consumer channel under test, with a choice of how an idle
+ * side waits. BLOCK uses the queue's own put/take; the lock-free rings have
+ * no blocking form, so BLOCK parks there like PARK.
+ */
+public abstract class Handoff<T> {
+    public enum Kind { ABQ, LBQ, LTQ, SPSC, MPSC, BATCHED }
+
+    public enum WaitStrategy { BLOCK, SPIN, YIELD, PARK }
+
+    public abstract void put(T item) throws InterruptedException;
+
+    public abstract T take() throws InterruptedException;
+
+    /** Hands over anything the calling producer is still holding back (BATCHED). */
+    public void flush() throws InterruptedException {}
+
+    /**
+     * @param capacity Slots (for BATCHED: batches of {@code batch} items).
+     * @throws IllegalArgumentException if the kind does not support the thread counts.
+     */
+    public static <T> Handoff<T> create(Kind kind, WaitStrategy wait, int capacity, int batch,
+                                        int producers, int consumers) {
+        switch (kind) {
+            case ABQ:  return new Queued<>(new ArrayBlockingQueue<>(capacity), wait);
+            case LBQ:  return new Queued<>(new LinkedBlockingQueue<>(capacity), wait);
+            case LTQ:  return new Queued<>(new LinkedTransferQueue<>(), wait);   // unbounded
+            case SPSC:
+                if (producers != 1 || consumers != 1) throw new IllegalArgumentException("SPSC needs 1x1");
+                SpscRing<T> spsc = new SpscRing<>(capacity);
+                return new Ring<>(spsc::offer, spsc::poll, wait);
+            case MPSC:
+                if (consumers != 1) throw new IllegalArgumentException("MPSC needs 1 consumer");
+                MpscRing<T> mpsc = new MpscRing<>(capacity);
+                return new Ring<>(mpsc::offer, mpsc::poll, wait);
+            default:
+                return new Batched<>(new ArrayBlockingQueue<>(Math.max(1, capacity / batch)), wait, batch);
+        }
+    }
+
+    static void idle(WaitStrategy wait) {
+        switch (wait) {
+            case SPIN:  Thread.onSpinWait(); break;
+            case YIELD: Thread.yield(); break;
+            default:    LockSupport.parkNanos(1_000); break;
+        }
+    }
+
+    private static class Queued<T> extends Handoff<T> {
+        private final BlockingQueue<T> queue;
+        private final WaitStrategy     wait;
+
+        Queued(BlockingQueue<T> queue, WaitStrategy wait) {
+            this.queue = queue;
+            this.wait  = wait;
+        }
+
+        @Override
+        public void put(T item) throws InterruptedException {
+            if (wait == WaitStrategy.BLOCK) { queue.put(item); return; }
+            while (!queue.offer(item)) idle(wait);
+        }
+
+        @Override
+        public T take() throws InterruptedException {
+            if (wait == WaitStrategy.BLOCK) return queue.take();
+            T item;
+            while ((item = queue.poll()) == null) idle(wait);
+            return item;
+        }
+    }
+
+    private static class Ring<T> extends Handoff<T> {
+        private final Predicate<T> offer;
+        private final Supplier<T>  poll;
+        private final WaitStrategy wait;
+
+        Ring(Predicate<T> offer, Supplier<T> poll, WaitStrategy wait) {
+            this.offer = offer;
+            this.poll  = poll;
+            this.wait  = wait;
+        }
+
+        @Override
+        public void put(T item) {
+            while (!offer.test(item)) idle(wait);
+        }
+
+        @Override
+        public T take() {
+            T item;
+            while ((item = poll.get()) == null) idle(wait);
+            return item;
+        }
+    }
+
+    /** Producers fill a private batch and hand it over whole; consumers drain a batch at a time. */
+    private static class Batched<T> extends Handoff<T> {
+        private final Queued<Object[]>        batches;
+        private final int                     size;
+        private final ThreadLocal<Object[]>   filling  = new ThreadLocal<>();
+        private final ThreadLocal<int[]>      fillPos  = ThreadLocal.withInitial(() -> new int[1]);
+        private final ThreadLocal<Object[]>   draining = new ThreadLocal<>();
+        private final ThreadLocal<int[]>      drainPos = ThreadLocal.withInitial(() -> new int[1]);
+
+        Batched(BlockingQueue<Object[]> queue, WaitStrategy wait, int size) {
+            this.batches = new Queued<>(queue, wait);
+            this.size    = size;
+        }
+
+        @Override
+        public void put(T item) throws InterruptedException {
+            Object[] b = filling.get();
+            if (b == null) filling.set(b = new Object[size]);
+            int[] pos = fillPos.get();
+            b[pos[0]++] = item;
+            if (pos[0] == size) flush();
+        }
+
+        @Override
+        public void flush() throws InterruptedException {
+            Object[] b = filling.get();
+            int[] pos = fillPos.get();
+            if (b == null || pos[0] == 0) return;
+            batches.put(pos[0] == size ? b : Arrays.copyOf(b, pos[0]));
+            filling.set(new Object[size]);
+            pos[0] = 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T take() throws InterruptedException {
+            Object[] b = draining.get();
+            int[] pos = drainPos.get();
+            if (b == null || pos[0] == b.length) {
+                draining.set(b = batches.take());
+                pos[0] = 0;
+            }
+            return (T) b[pos[0]++];
+        }
+    }
+}
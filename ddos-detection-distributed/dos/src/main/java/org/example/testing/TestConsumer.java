@@ -1,67 +1,46 @@
 package org.example.testing;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import org.example.util.LatencyHistogram;
 
 /**
- * Consumes the M timestamps, injects a simulated delay,
- * measures latency, and writes results.
+ * Consumes packets until the end-of-stream marker, injects a simulated delay,
+ * and records each packet's enqueue-to-processed latency in a fixed-size
+ * histogram, so memory stays constant however many packets are run.
  */
 public class TestConsumer implements Runnable {
-    private final BlockingQueue<Long> queue;
-    private final int total;
+    private final Handoff<TestPacket> queue;
     private final long simulatedDelayMs;
-    private final List<Double> latencies = new ArrayList<>();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private long checksum;
 
-    public TestConsumer(BlockingQueue<Long> queue, int total, long simulatedDelayMs) {
+    public TestConsumer(Handoff<TestPacket> queue, long simulatedDelayMs) {
         this.queue            = queue;
-        this.total            = total;
         this.simulatedDelayMs = simulatedDelayMs;
     }
 
     @Override
     public void run() {
         try {
-            for (int i = 0; i < total; i++) {
-                long startNs = queue.take();
+            while (true) {
+                TestPacket p = queue.take();
+                if (p == TestPacket.POISON) break;
+                if (p.payload != null) checksum += p.payload[0];   // touch the payload
                 if (simulatedDelayMs > 0) {
                     Thread.sleep(simulatedDelayMs);
                 }
-                long endNs = System.nanoTime();
-                double latencyMs = (endNs - startNs) / 1_000_000.0;
-                latencies.add(latencyMs);
+                latencies.record(System.nanoTime() - p.sentNs);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            // Summarize
-            double sum = 0;
-            for (double l : latencies) sum += l;
-            double avg = sum / latencies.size();
-            Collections.sort(latencies);
-            double p99 = latencies.get((int)Math.floor(latencies.size() * 0.99));
-
-            System.out.printf(
-                    "Processed %,d packets with %d ms simulated delay:%n" +
-                            "  • Average latency:    %.3f ms%n" +
-                            "  • 99th-percentile:    %.3f ms%n",
-                    total, simulatedDelayMs, avg, p99
-            );
+    /** Latencies in ns; merge these across consumers for a run-wide view. */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
 
-            // Write per-packet CSV
-            String filename = String.format("latencies_%dms.csv", simulatedDelayMs);
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
-                writer.write("latency_ms\n");
-                for (double l : latencies) {
-                    writer.write(String.format("%.6f%n", l));
-                }
-            }
-            System.out.println("Wrote detailed latencies to " + filename);
-        } catch (Exception e) {
-            System.err.println("Error in TestConsumer: " + e.getMessage());
-            e.printStackTrace();
-        }
+    public long getChecksum() {
+        return checksum;
     }
 }
@@ -0,0 +1,15 @@
+package org.example.testing;
+
+/** One queued test message: its enqueue timestamp plus a payload of pinned size. */
+public class TestPacket {
+    /** End-of-stream marker; each consumer stops at the first one it takes. */
+    public static final TestPacket POISON = new TestPacket(-1, 0);
+
+    public final long   sentNs;
+    public final byte[] payload;
+
+    public TestPacket(long sentNs, int payloadBytes) {
+        this.sentNs  = sentNs;
+        this.payload = payloadBytes > 0 ? new byte[payloadBytes] : null;
+    }
+}
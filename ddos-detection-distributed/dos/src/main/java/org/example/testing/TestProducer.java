@@ -1,24 +1,46 @@
 package org.example.testing;
 
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Produces M timestamped “packets” (nano-timestamps) into the queue.
+ * Produces timestamped “packets” into the handoff. The last producer to finish
+ * sends one end-of-stream marker per consumer.
  */
 public class TestProducer implements Runnable {
-    private final BlockingQueue<Long> queue;
+    private final Handoff<TestPacket> queue;
     private final int total;
+    private final int payloadBytes;
+    private final AtomicInteger running;
+    private final int consumers;
 
-    public TestProducer(BlockingQueue<Long> queue, int total) {
-        this.queue = queue;
-        this.total = total;
+    /**
+     * @param running   Producers still sending, shared by all of them.
+     * @param consumers How many end-of-stream markers to send.
+     */
+    public TestProducer(Handoff<TestPacket> queue, int total, int payloadBytes,
+                        AtomicInteger running, int consumers) {
+        this.queue        = queue;
+        this.total        = total;
+        this.payloadBytes = payloadBytes;
+        this.running      = running;
+        this.consumers    = consumers;
     }
 
     @Override
     public void run() {
         try {
             for (int i = 0; i < total; i++) {
-                queue.put(System.nanoTime());
+                TestPacket p = new TestPacket(System.nanoTime(), payloadBytes);
+                if (p.payload != null) p.payload[0] = (byte) i;
+                queue.put(p);
+            }
+            queue.flush();
+            if (running.decrementAndGet() == 0) {
+                // Each marker in its own batch, so no consumer strands another's
+                for (int i = 0; i < consumers; i++) {
+                    queue.put(TestPacket.POISON);
+                    queue.flush();
+                }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -1,32 +1,133 @@
 package org.example.testing;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import org.example.testing.Handoff.Kind;
+import org.example.testing.Handoff.WaitStrategy;
+import org.example.util.LatencyHistogram;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Entry point:
+ * Producer/consumer handoff harness. The original form runs 1x1 over an
+ * ArrayBlockingQueue and writes the latency percentile distribution to a file:
  *   java org.example.testing.TestingMain <numPackets> <simulatedDelayMs>
+ * The flag form sweeps queue kinds x wait strategies x message sizes for M
+ * producers and N consumers and prints throughput and latency tables:
+ *   java org.example.testing.TestingMain [--producers=1] [--consumers=1] [--messages=1000000]
+ *        [--queues=ABQ,LBQ,LTQ,SPSC,MPSC,BATCHED] [--waits=BLOCK,PARK,YIELD,SPIN]
+ *        [--sizes=0,64,1024] [--capacity=1024] [--batch=64] [--delayMs=0]
+ * Messages are split evenly across producers; capacity is in messages.
  */
 public class TestingMain {
     public static void main(String[] args) throws Exception {
-        if (args.length < 2) {
-            System.err.println(
-                    "Usage: java org.example.testing.TestingMain <numPackets> <simulatedDelayMs>"
-            );
-            System.exit(1);
+        if (args.length == 2 && !args[0].startsWith("--")) {
+            legacy(Integer.parseInt(args[0]), Long.parseLong(args[1]));
+            return;
+        }
+        int producers = 1, consumers = 1, messages = 1_000_000, capacity = 1024, batch = 64;
+        long delayMs = 0;
+        String queues = "ABQ,LBQ,LTQ,SPSC,MPSC,BATCHED", waits = "BLOCK,PARK,YIELD,SPIN", sizes = "0,64,1024";
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (!a.startsWith("--") || eq < 0) throw new IllegalArgumentException("Unrecognized argument: " + a);
+            String v = a.substring(eq + 1);
+            switch (a.substring(2, eq)) {
+                case "producers": producers = Integer.parseInt(v); break;
+                case "consumers": consumers = Integer.parseInt(v); break;
+                case "messages":  messages  = Integer.parseInt(v); break;
+                case "capacity":  capacity  = Integer.parseInt(v); break;
+                case "batch":     batch     = Integer.parseInt(v); break;
+                case "delayMs":   delayMs   = Long.parseLong(v); break;
+                case "queues":    queues    = v; break;
+                case "waits":     waits     = v; break;
+                case "sizes":     sizes     = v; break;
+                default: throw new IllegalArgumentException("Unrecognized argument: " + a);
+            }
+        }
+
+        System.out.println("=== QUEUE HANDOFF BENCHMARK ===");
+        System.out.printf("Producers: %d, consumers: %d, messages: %,d, capacity: %d, batch: %d, delay: %d ms, CPUs: %d%n",
+                producers, consumers, messages, capacity, batch, delayMs, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%n%-8s | %-6s | %-6s | %-12s | %-9s | %-9s | %-9s | %-9s | %-9s%n",
+                "Queue", "Wait", "Bytes", "Msgs/s", "avg ms", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        System.out.println("-".repeat(96));
+        for (String size : sizes.split(",")) {
+            for (String q : queues.split(",")) {
+                for (String w : waits.split(",")) {
+                    Kind kind = Kind.valueOf(q.trim().toUpperCase(Locale.ROOT));
+                    WaitStrategy wait = WaitStrategy.valueOf(w.trim().toUpperCase(Locale.ROOT));
+                    int bytes = Integer.parseInt(size.trim());
+                    String prefix = String.format("%-8s | %-6s | %-6d | ", kind, wait, bytes);
+                    Handoff<TestPacket> handoff;
+                    try {
+                        handoff = Handoff.create(kind, wait, capacity, batch, producers, consumers);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(prefix + "n/a (" + e.getMessage() + ")");
+                        continue;
+                    }
+                    System.out.println(prefix + run(handoff, producers, consumers, messages, bytes, delayMs));
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    private static String run(Handoff<TestPacket> handoff, int producers, int consumers, int messages,
+                              int bytes, long delayMs) throws InterruptedException {
+        AtomicInteger running = new AtomicInteger(producers);
+        List<TestConsumer> cs = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < consumers; i++) {
+            TestConsumer c = new TestConsumer(handoff, delayMs);
+            cs.add(c);
+            threads.add(new Thread(c, "TestConsumer-" + i));
+        }
+        for (int i = 0; i < producers; i++) {
+            int share = messages / producers + (i < messages % producers ? 1 : 0);
+            threads.add(new Thread(new TestProducer(handoff, share, bytes, running, consumers), "TestProducer-" + i));
         }
+        long start = System.nanoTime();
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        double sec = (System.nanoTime() - start) / 1e9;
 
-        int M       = Integer.parseInt(args[0]);
-        long delay  = Long.parseLong(args[1]);
-        BlockingQueue<Long> queue = new ArrayBlockingQueue<>(M);
+        LatencyHistogram all = new LatencyHistogram();
+        for (TestConsumer c : cs) all.merge(c.getLatencies());
+        return String.format("%-12.0f | %-9.3f | %-9.3f | %-9.3f | %-9.3f | %-9.3f",
+                all.getCount() / sec, all.getMean() / 1e6, all.getValueAtPercentile(50) / 1e6,
+                all.getValueAtPercentile(99) / 1e6, all.getValueAtPercentile(99.9) / 1e6, all.getMax() / 1e6);
+    }
 
-        Thread consumer = new Thread(new TestConsumer(queue, M, delay), "TestConsumer");
-        Thread producer = new Thread(new TestProducer(queue, M),       "TestProducer");
+    // The original 1x1 ArrayBlockingQueue run, with a percentile file instead of per-packet CSV
+    private static void legacy(int total, long delay) throws Exception {
+        // Sized to the run as before, but capped so long runs do not preallocate gigabytes
+        Handoff<TestPacket> queue = Handoff.create(Kind.ABQ, WaitStrategy.BLOCK, Math.min(total + 1, 1 << 20), 1, 1, 1);
+        TestConsumer c = new TestConsumer(queue, delay);
+        Thread consumer = new Thread(c, "TestConsumer");
+        Thread producer = new Thread(new TestProducer(queue, total, 0, new AtomicInteger(1), 1), "TestProducer");
 
         // Start & wait
         consumer.start();
         producer.start();
         producer.join();
         consumer.join();
+
+        LatencyHistogram latencies = c.getLatencies();
+        System.out.printf(
+                "Processed %,d packets with %d ms simulated delay:%n" +
+                        "  • Average latency:    %.3f ms%n" +
+                        "  • p50/p90/p99/p99.9/max: %s%n",
+                total, delay, latencies.getMean() / 1e6, latencies.percentileSummary()
+        );
+
+        String filename = String.format("latencies_%dms.hgrm", delay);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+            latencies.writePercentiles(writer);
+        }
+        System.out.println("Wrote latency percentile distribution to " + filename);
     }
 }
@@ -1,20 +1,33 @@
 package org.example.ui;
 
+import org.example.load.AttackProfile;
+import org.example.load.LoadGenerator;
+import org.example.load.LoadReport;
+import org.example.load.ProfileRunner;
+
 import javax.swing.*;
 import java.awt.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.ArrayList;
+import java.net.URI;
 import java.util.List;
-import java.util.concurrent.*;
 
+/**
+ * Drives the target with one open-loop load group per simulated client, plus
+ * an optional botnet of many synthetic sources. Each client sends at its
+ * target rate over its own keep-alive connections, and its row shows the rate
+ * actually achieved next to the target. A scripted profile (the same engine
+ * as {@link org.example.LoadMain}) can be played instead of the manual rows.
+ */
 public class AttackSimulatorPanel extends JPanel {
     private static final String[] CLIENT_IPS = {"127.0.0.1","127.0.0.2","127.0.0.3"};
     private final JTextField urlField;
     private final ClientConfigPanel[] clientPanels;
-    private final JButton startBtn, stopBtn;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(CLIENT_IPS.length);
-    private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+    private final BotnetPanel botnetPanel = new BotnetPanel();
+    private final JButton startBtn, stopBtn, reportBtn, profileBtn;
+    private final JLabel  totalLabel = new JLabel(" ");
+    private final Timer   refresh;
+    private LoadGenerator generator;
+    private ProfileRunner profileRunner;
+    private List<LoadGenerator.Group> lastGroups;
 
     public AttackSimulatorPanel() {
         setLayout(new BorderLayout(10,10));
@@ -33,53 +46,130 @@ public class AttackSimulatorPanel extends JPanel {
             clientPanels[i] = new ClientConfigPanel(CLIENT_IPS[i]);
             center.add(clientPanels[i]);
         }
-        add(center, BorderLayout.CENTER);
+        JPanel middle = new JPanel(new BorderLayout(5,5));
+        middle.add(center, BorderLayout.CENTER);
+        middle.add(botnetPanel, BorderLayout.SOUTH);
+        add(middle, BorderLayout.CENTER);
 
         // Controls
         JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT));
         startBtn = new JButton("Start Simulation");
         stopBtn  = new JButton("Stop Simulation");
+        reportBtn = new JButton("Latency Report");
+        profileBtn = new JButton("Run Profile...");
         stopBtn.setEnabled(false);
+        reportBtn.setEnabled(false);
         bottom.add(startBtn);
+        bottom.add(profileBtn);
         bottom.add(stopBtn);
+        bottom.add(reportBtn);
+        bottom.add(totalLabel);
         add(bottom, BorderLayout.SOUTH);
 
-        startBtn.addActionListener(e -> {
-            startBtn.setEnabled(false);
-            stopBtn.setEnabled(true);
-            for (ClientConfigPanel cp: clientPanels) {
-                ScheduledFuture<?> f = scheduler.scheduleAtFixedRate(
-                        () -> simulate(cp), 0, 200, TimeUnit.MILLISECONDS);
-                tasks.add(f);
+        refresh = new Timer(1000, e -> {
+            double target = 0;
+            for (ClientConfigPanel cp : clientPanels) {
+                cp.refresh();
+                target += cp.targetRate();
             }
+            botnetPanel.refresh();
+            target += botnetPanel.targetRate();
+            if (generator != null) totalLabel.setText(String.format("Total target: %,.0f req/s", target));
         });
-        stopBtn.addActionListener(e -> {
-            tasks.forEach(t -> t.cancel(true));
-            tasks.clear();
-            startBtn.setEnabled(true);
-            stopBtn.setEnabled(false);
-        });
+
+        startBtn.addActionListener(e -> start());
+        stopBtn.addActionListener(e -> stop());
+        reportBtn.addActionListener(e -> showReport());
+        profileBtn.addActionListener(e -> runProfile());
     }
 
-    private void simulate(ClientConfigPanel cp) {
-        if (!cp.isEnabled()) return;
-        int rps = cp.getSpeed();
-        int cnt = (int)Math.round(rps * 0.2);
-        for (int i=0; i<cnt; i++) sendRequest(cp.getIp());
+    private void showReport() {
+        if (lastGroups == null) return;
+        JTextArea text = new JTextArea(LoadReport.latencyTable(lastGroups));
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        text.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(text), "Latency from intended send time",
+                JOptionPane.PLAIN_MESSAGE);
     }
 
-    private void sendRequest(String ip) {
+    private URI targetUri() {
         try {
             String raw = urlField.getText().trim();
             if (!raw.startsWith("http")) raw = "http://"+raw;
-            URL url = new URL(raw);
-            HttpURLConnection c = (HttpURLConnection)url.openConnection();
-            c.setRequestMethod("GET");
-            c.setRequestProperty("X-Forwarded-For", ip);
-            c.setConnectTimeout(1000);
-            c.setReadTimeout(1000);
-            c.getResponseCode();
-            c.disconnect();
-        } catch (Exception ignored) {}
+            URI target = URI.create(raw);
+            if (target.getHost() == null) throw new IllegalArgumentException("missing host");
+            return target;
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid URL: " + ex.getMessage(), "Attack Simulator",
+                    JOptionPane.ERROR_MESSAGE);
+            return null;
+        }
+    }
+
+    private void start() {
+        URI target = targetUri();
+        if (target == null) return;
+        generator = new LoadGenerator(target);
+        for (ClientConfigPanel cp : clientPanels) {
+            String ip = cp.getIp();
+            cp.attach(generator.addGroup(ip, cp.getConnections(), cp.targetRate(), () -> ip));
+        }
+        botnetPanel.attach(generator);
+        generator.start();
+        lastGroups = generator.getGroups();
+        refresh.start();
+        running(true);
+    }
+
+    // Plays a profile file against the URL field's target; the manual rows stay idle
+    private void runProfile() {
+        URI target = targetUri();
+        if (target == null) return;
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        AttackProfile profile;
+        try {
+            profile = AttackProfile.load(chooser.getSelectedFile().toPath());
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "Invalid profile: " + ex.getMessage(), "Attack Simulator",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        ProfileRunner runner = new ProfileRunner(profile, target);
+        profileRunner = runner;
+        lastGroups    = runner.getGroups();
+        running(true);
+        Thread t = new Thread(() -> {
+            try {
+                runner.run(line -> SwingUtilities.invokeLater(() -> totalLabel.setText(line)), 1000);
+            } catch (InterruptedException ignored) {
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    if (profileRunner == runner) stop();
+                });
+            }
+        }, "LoadProfile");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void running(boolean on) {
+        reportBtn.setEnabled(true);
+        startBtn.setEnabled(!on);
+        profileBtn.setEnabled(!on);
+        stopBtn.setEnabled(on);
+        urlField.setEnabled(!on);
+    }
+
+    private void stop() {
+        refresh.stop();
+        if (generator != null) generator.stop();
+        if (profileRunner != null) profileRunner.stop();
+        generator     = null;
+        profileRunner = null;
+        for (ClientConfigPanel cp : clientPanels) cp.attach(null);
+        botnetPanel.detach();
+        totalLabel.setText(" ");
+        running(false);
     }
 }
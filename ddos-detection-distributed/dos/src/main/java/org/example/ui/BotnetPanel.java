@@ -0,0 +1,155 @@
+package org.example.ui;
+
+import org.example.load.DetectionScore;
+import org.example.load.LoadGenerator;
+import org.example.load.SourcePopulation;
+import org.example.load.SourcePopulation.Distribution;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Botnet mode for the simulator: an attacking population of synthetic
+ * X-Forwarded-For sources in 10.0.0.0/8 plus a benign background population
+ * in 172.0.0.0/8, each with its own rate. While running it scores the
+ * monitor's blocks against the known attacker set.
+ */
+public class BotnetPanel extends JPanel {
+    public static final int ATTACKER_OCTET = 10, BENIGN_OCTET = 172;
+
+    private final JCheckBox enabled   = new JCheckBox("Botnet");
+    private final JComboBox<Distribution> distribution = new JComboBox<>(Distribution.values());
+    private final JSpinner  bots      = new JSpinner(new SpinnerNumberModel(10_000, 1_000, 1_000_000, 1_000));
+    private final JSpinner  botRate   = new JSpinner(new SpinnerNumberModel(5_000, 0, 1_000_000, 500));
+    private final JSpinner  benign    = new JSpinner(new SpinnerNumberModel(1_000, 1, 1_000_000, 100));
+    private final JSpinner  benRate   = new JSpinner(new SpinnerNumberModel(500, 0, 1_000_000, 100));
+    private final JSpinner  conns     = new JSpinner(new SpinnerNumberModel(32, 1, 1024, 1));
+    private final JLabel    achieved  = new JLabel(" ");
+    private final JLabel    score     = new JLabel(" ");
+    // Coalesces spinner ticks into one population rebuild once they settle
+    private final Timer     reshape   = new Timer(250, e -> rebuildSources());
+    private int reshapes;
+    private boolean sourcesReady;
+    private LoadGenerator.Group botGroup, benignGroup;
+    private volatile boolean scoring;
+    private long lastBot, lastBenign, lastNs;
+
+    public BotnetPanel() {
+        setLayout(new GridLayout(3, 1));
+        setBorder(BorderFactory.createTitledBorder("Botnet simulation"));
+        JPanel attack = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 2));
+        attack.add(enabled);
+        attack.add(distribution);
+        attack.add(new JLabel("Sources:"));
+        attack.add(bots);
+        attack.add(new JLabel("Rate (req/s):"));
+        attack.add(botRate);
+        attack.add(new JLabel("Connections:"));
+        attack.add(conns);
+        JPanel background = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 2));
+        background.add(new JLabel("Benign sources:"));
+        background.add(benign);
+        background.add(new JLabel("Rate (req/s):"));
+        background.add(benRate);
+        background.add(achieved);
+        JPanel result = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 2));
+        result.add(score);
+        add(attack);
+        add(background);
+        add(result);
+
+        // Rates apply live; a new population shape swaps the source supplier
+        // once the controls settle
+        enabled.addActionListener(e -> applyRates());
+        botRate.addChangeListener(e -> applyRates());
+        benRate.addChangeListener(e -> applyRates());
+        reshape.setRepeats(false);
+        distribution.addActionListener(e -> reshape.restart());
+        bots.addChangeListener(e -> reshape.restart());
+        benign.addChangeListener(e -> reshape.restart());
+    }
+
+    // Groups start paused on uniform placeholders (no CDF to build); the real
+    // populations come from rebuildSources(), which also starts the traffic
+    void attach(LoadGenerator gen) {
+        int c = (Integer) conns.getValue();
+        botGroup    = gen.addGroup("botnet", c, 0, attackers(Distribution.UNIFORM, (Integer) bots.getValue()));
+        benignGroup = gen.addGroup("benign", Math.max(1, c / 4), 0, background());
+        sourcesReady = false;
+        lastBot = 0; lastBenign = 0; lastNs = System.nanoTime();
+        conns.setEnabled(false);
+        rebuildSources();
+    }
+
+    void detach() {
+        reshape.stop();
+        reshapes++;
+        botGroup = benignGroup = null;
+        conns.setEnabled(true);
+        achieved.setText(" ");
+    }
+
+    double targetRate() {
+        return enabled.isSelected() ? (Integer) botRate.getValue() + (Integer) benRate.getValue() : 0;
+    }
+
+    /** Called on the EDT once a second while running. */
+    void refresh() {
+        if (botGroup == null) return;
+        long now = System.nanoTime(), bot = botGroup.completed(), ben = benignGroup.completed();
+        double sec = (now - lastNs) / 1e9;
+        achieved.setText(String.format("achieved: botnet %,.0f req/s, benign %,.0f req/s (benign 403: %,d)",
+                (bot - lastBot) / sec, (ben - lastBenign) / sec, benignGroup.forbidden.sum()));
+        lastBot = bot; lastBenign = ben; lastNs = now;
+
+        // Scoring walks every tracked IP, so keep it off the EDT
+        if (scoring || !enabled.isSelected()) return;
+        scoring = true;
+        String prefix = ATTACKER_OCTET + ".";
+        CompletableFuture.supplyAsync(() -> DetectionScore.of(ip -> ip.startsWith(prefix)))
+                .whenComplete((s, err) -> {
+                    scoring = false;
+                    if (s != null) SwingUtilities.invokeLater(() -> score.setText("Detection: " + s));
+                });
+    }
+
+    private SourcePopulation background() {
+        return background((Integer) benign.getValue());
+    }
+
+    private static SourcePopulation attackers(Distribution d, int n) {
+        return new SourcePopulation(ATTACKER_OCTET, d, n);
+    }
+
+    private static SourcePopulation background(int n) {
+        return new SourcePopulation(BENIGN_OCTET, Distribution.UNIFORM, n);
+    }
+
+    // A population of up to a million sources (a Zipf CDF for the attackers) is
+    // built off the EDT and swapped in unless the controls changed again meanwhile
+    private void rebuildSources() {
+        if (botGroup == null) return;
+        int gen = ++reshapes;
+        LoadGenerator.Group bot = botGroup, ben = benignGroup;
+        Distribution d = (Distribution) distribution.getSelectedItem();
+        int nBots = (Integer) bots.getValue(), nBenign = (Integer) benign.getValue();
+        CompletableFuture.runAsync(() -> {
+            SourcePopulation a = attackers(d, nBots), b = background(nBenign);
+            SwingUtilities.invokeLater(() -> {
+                if (gen != reshapes) return;
+                bot.setSources(a);
+                ben.setSources(b);
+                sourcesReady = true;
+                applyRates();
+            });
+        });
+    }
+
+    private void applyRates() {
+        if (botGroup == null || !sourcesReady) return;
+        boolean on = enabled.isSelected();
+        botGroup.setRate(on ? (Integer) botRate.getValue() : 0);
+        benignGroup.setRate(on ? (Integer) benRate.getValue() : 0);
+    }
+}
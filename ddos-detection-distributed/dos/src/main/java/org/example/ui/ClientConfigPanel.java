@@ -1,12 +1,17 @@
 package org.example.ui;
 
+import org.example.load.LoadGenerator;
+
 import javax.swing.*;
 import java.awt.*;
 
 public class ClientConfigPanel extends JPanel {
     private final String ip;
     private final JCheckBox enabled;
-    private final JSlider slider;
+    private final JSpinner  rate, conns;
+    private final JLabel    achieved = new JLabel("achieved: -");
+    private LoadGenerator.Group group;
+    private long lastDone, lastForbidden, lastNs;
 
     public ClientConfigPanel(String ip) {
         this.ip = ip;
@@ -15,17 +20,50 @@ public class ClientConfigPanel extends JPanel {
         enabled = new JCheckBox("Enabled");
         add(enabled);
 
-        slider = new JSlider(0,1000,50);
-        slider.setPreferredSize(new Dimension(200,40));
-        slider.setMajorTickSpacing(250);
-        slider.setMinorTickSpacing(50);
-        slider.setPaintTicks(true);
-        slider.setPaintLabels(true);
-        add(new JLabel("Speed (req/s):"));
-        add(slider);
+        rate  = new JSpinner(new SpinnerNumberModel(50, 0, 1_000_000, 100));
+        conns = new JSpinner(new SpinnerNumberModel(8, 1, 1024, 1));
+        ((JSpinner.DefaultEditor) rate.getEditor()).getTextField().setColumns(7);
+        add(new JLabel("Target (req/s):"));
+        add(rate);
+        add(new JLabel("Connections:"));
+        add(conns);
+        add(achieved);
+
+        // Rate changes apply to a running generator straight away
+        enabled.addActionListener(e -> applyRate());
+        rate.addChangeListener(e -> applyRate());
+    }
+
+    public boolean isEnabled()      { return enabled.isSelected(); }
+    public int     getSpeed()       { return (Integer) rate.getValue();  }
+    public int     getConnections() { return (Integer) conns.getValue(); }
+    public String  getIp()          { return ip;                    }
+
+    /** Binds this panel to a running group, or unbinds it with {@code null}. */
+    void attach(LoadGenerator.Group g) {
+        group    = g;
+        lastDone = 0; lastForbidden = 0; lastNs = System.nanoTime();
+        conns.setEnabled(g == null);
+        achieved.setText(g == null ? "achieved: -" : "achieved: 0 req/s");
     }
 
-    public boolean isEnabled() { return enabled.isSelected(); }
-    public int     getSpeed()   { return slider.getValue();      }
-    public String  getIp()      { return ip;                    }
+    double targetRate() {
+        return isEnabled() ? getSpeed() : 0;
+    }
+
+    /** Called on the EDT; shows the completed-request rate since the last call. */
+    void refresh() {
+        if (group == null) return;
+        long now = System.nanoTime(), done = group.completed(), forbidden = group.forbidden.sum();
+        double sec = (now - lastNs) / 1e9;
+        achieved.setText(String.format("achieved: %,.0f req/s (403: %,.0f/s, served p99 %.1f ms, lag %.0f ms)",
+                (done - lastDone) / sec, (forbidden - lastForbidden) / sec,
+                group.servedLatency.getValueAtPercentile(99) / 1e6,
+                group.getRate() > 0 ? group.lagMillis() : 0));
+        lastDone = done; lastForbidden = forbidden; lastNs = now;
+    }
+
+    private void applyRate() {
+        if (group != null) group.setRate(targetRate());
+    }
 }
@@ -1,19 +1,155 @@
 package org.example.ui;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.util.Arrays;
+import java.util.Locale;
 
+import org.example.core.SharedData;
+import org.example.util.EventRing;
+
+/**
+ * Firewall event log. Appends only write into a bounded ring from any thread;
+ * a Swing timer publishes new lines to the list at most once per
+ * {@link SharedData#logFrameMs}. The JList uses fixed cell sizes, so it only
+ * lays out and paints the visible rows regardless of how many lines are held.
+ */
 public class FirewallLogPanel extends JPanel {
-    private final JTextArea area;
+    private final EventRing  ring = new EventRing(SharedData.logCapacity);
+    private final LogModel   model = new LogModel();
+    private final JList<String> list;
+    private final JScrollPane scroll;
+    private final JLabel     countLabel = new JLabel("0 events");
+    private final JCheckBox  followBox  = new JCheckBox("Follow", true);
+    private final JTextField filterField = new JTextField(20);
+
+    private String filter = "";
+    private long   publishedNext = 0;   // ring.nextSeq() at the last publish
 
     public FirewallLogPanel() {
         setLayout(new BorderLayout());
-        area = new JTextArea();
-        area.setEditable(false);
-        add(new JScrollPane(area), BorderLayout.CENTER);
+
+        list = new JList<>(model);
+        list.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        list.setPrototypeCellValue("[2000-00-00 00:00:00] Unblocked 255.255.255.255 (rps=0000000000) ......");
+        scroll = new JScrollPane(list);
+        add(scroll, BorderLayout.CENTER);
+
+        filterField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e)  { applyFilter(); }
+            public void removeUpdate(DocumentEvent e)  { applyFilter(); }
+            public void changedUpdate(DocumentEvent e) { applyFilter(); }
+        });
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(new JLabel("Filter:"));
+        top.add(filterField);
+        top.add(followBox);
+        top.add(countLabel);
+        add(top, BorderLayout.NORTH);
+
+        new Timer(SharedData.logFrameMs, e -> publish()).start();
     }
 
+    /** Safe from any thread; never touches Swing. */
     public void appendLog(String line) {
-        SwingUtilities.invokeLater(() -> area.append(line));
+        int end = line.length();
+        while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) end--;
+        ring.append(end == line.length() ? line : line.substring(0, end));
+    }
+
+    // EDT: pick up everything appended since the last frame in one model update
+    private void publish() {
+        long first = ring.firstSeq(), next = ring.nextSeq();
+        if (next == publishedNext) return;
+        if (filter.isEmpty()) {
+            model.showRange(first, next);
+        } else {
+            model.appendMatches(Math.max(publishedNext, first), next, first);
+        }
+        publishedNext = next;
+        countLabel.setText(String.format("%d shown / %d held / %d total", model.getSize(), next - first, next));
+        if (followBox.isSelected() && model.getSize() > 0) {
+            list.ensureIndexIsVisible(model.getSize() - 1);
+        }
+    }
+
+    private void applyFilter() {
+        filter = filterField.getText().trim().toLowerCase(Locale.ROOT);
+        long first = ring.firstSeq(), next = ring.nextSeq();
+        if (filter.isEmpty()) {
+            model.showRange(first, next);
+        } else {
+            model.clearMatches();
+            model.appendMatches(first, next, first);
+        }
+        publishedNext = next;
+        publish();
+    }
+
+    /**
+     * Rows are sequence numbers: either the contiguous held range, or the
+     * matching sequence numbers when a filter is active.
+     */
+    private class LogModel extends AbstractListModel<String> {
+        private long   rangeFirst = 0;
+        private int    rangeSize  = 0;
+        private long[] matches    = new long[256];
+        private int    matchHead  = 0, matchSize = 0;
+        private boolean filtered  = false;
+
+        @Override
+        public int getSize() {
+            return filtered ? matchSize : rangeSize;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            long seq = filtered ? matches[matchHead + index] : rangeFirst + index;
+            String s = ring.get(seq);
+            return s != null ? s : "";
+        }
+
+        void showRange(long first, long next) {
+            int oldSize = getSize();
+            filtered   = false;
+            rangeFirst = first;
+            rangeSize  = (int) (next - first);
+            fireChanged(oldSize);
+        }
+
+        void clearMatches() {
+            matchHead = 0;
+            matchSize = 0;
+        }
+
+        void appendMatches(long from, long next, long first) {
+            int oldSize = getSize();
+            filtered = true;
+            // Drop matches the ring has overwritten
+            while (matchSize > 0 && matches[matchHead] < first) { matchHead++; matchSize--; }
+            for (long seq = from; seq < next; seq++) {
+                String s = ring.get(seq);
+                if (s == null || !s.toLowerCase(Locale.ROOT).contains(filter)) continue;
+                if (matchHead + matchSize == matches.length) {
+                    if (matchHead > 0) {
+                        System.arraycopy(matches, matchHead, matches, 0, matchSize);
+                        matchHead = 0;
+                    } else {
+                        matches = Arrays.copyOf(matches, matches.length * 2);
+                    }
+                }
+                matches[matchHead + matchSize++] = seq;
+            }
+            fireChanged(oldSize);
+        }
+
+        private void fireChanged(int oldSize) {
+            int size = getSize();
+            if (size < oldSize) fireIntervalRemoved(this, size, oldSize - 1);
+            else if (size > oldSize) fireIntervalAdded(this, oldSize, size - 1);
+            if (size > 0) fireContentsChanged(this, 0, size - 1);
+        }
     }
 }
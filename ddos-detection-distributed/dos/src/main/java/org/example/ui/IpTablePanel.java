@@ -0,0 +1,120 @@
+package org.example.ui;
+
+import org.example.core.DetectionEngine;
+import org.example.core.IpSnapshot;
+import org.example.core.SharedData;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sortable per-IP table. Rows come from the immutable per-tick snapshot
+ * (top sources by rate plus blocked ones), or, while the search field is set,
+ * from a search over every tracked IP that runs off the EDT. The model only
+ * swaps an array reference, and JTable paints just the visible rows.
+ */
+public class IpTablePanel extends JPanel {
+    private static final String[] COLUMNS = {"IP", "Rate/s", "Mean/s", "Stddev/s", "Blocked", "Listed", "Cooldown"};
+    private static final Class<?>[] TYPES = {String.class, Double.class, Double.class, Double.class,
+                                             Boolean.class, Boolean.class, Integer.class};
+
+    private final IpModel    model  = new IpModel();
+    private final JTextField search = new JTextField(16);
+    private final JLabel     status = new JLabel(" ");
+    private volatile String  query  = "";
+    private volatile boolean searching;
+
+    public IpTablePanel() {
+        setLayout(new BorderLayout(5,5));
+        JTable table = new JTable(model);
+        table.setRowSorter(new TableRowSorter<>(model));
+        table.setFillsViewportHeight(true);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+
+        search.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e)  { onQuery(); }
+            public void removeUpdate(DocumentEvent e)  { onQuery(); }
+            public void changedUpdate(DocumentEvent e) { onQuery(); }
+        });
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(new JLabel("Search IP:"));
+        top.add(search);
+        top.add(status);
+        add(top, BorderLayout.NORTH);
+    }
+
+    /** Called on the detection thread. */
+    public void onTick(DetectionEngine.Tick t) {
+        if (query.isEmpty()) {
+            show(t.rows, t.tickMs, "Top " + t.rows.size() + " of " + SharedData.attemptsByIp.size() + " tracked");
+        } else {
+            runSearch(t.tickMs);
+        }
+    }
+
+    private void onQuery() {
+        query = search.getText().trim();
+        DetectionEngine.Tick last = SharedData.detection.getLastTick();
+        int tickMs = last != null ? last.tickMs : SharedData.tickMs;
+        if (query.isEmpty() && last != null) onTick(last);
+        else if (!query.isEmpty()) runSearch(tickMs);
+    }
+
+    // One search in flight at a time; a tick arriving meanwhile is skipped
+    private void runSearch(int tickMs) {
+        if (searching) return;
+        searching = true;
+        String q = query;
+        CompletableFuture.supplyAsync(() -> DetectionEngine.search(q, SharedData.tableRows))
+                .whenComplete((rows, err) -> {
+                    searching = false;
+                    if (rows != null && q.equals(query)) {
+                        show(rows, tickMs, rows.size() + " match" + (rows.size() == 1 ? "" : "es"));
+                    }
+                });
+    }
+
+    private void show(List<IpSnapshot> rows, int tickMs, String text) {
+        IpSnapshot[] arr = rows.toArray(new IpSnapshot[0]);
+        SwingUtilities.invokeLater(() -> {
+            model.setRows(arr, tickMs);
+            status.setText(text);
+        });
+    }
+
+    private static class IpModel extends AbstractTableModel {
+        private IpSnapshot[] rows = new IpSnapshot[0];
+        private double       scale = 1;
+
+        void setRows(IpSnapshot[] rows, int tickMs) {
+            this.rows  = rows;
+            this.scale = 1000.0 / tickMs;
+            fireTableDataChanged();
+        }
+
+        @Override public int getRowCount()                { return rows.length;  }
+        @Override public int getColumnCount()             { return COLUMNS.length; }
+        @Override public String getColumnName(int c)      { return COLUMNS[c]; }
+        @Override public Class<?> getColumnClass(int c)   { return TYPES[c]; }
+
+        @Override
+        public Object getValueAt(int r, int c) {
+            IpSnapshot s = rows[r];
+            switch (c) {
+                case 0:  return s.ip;
+                case 1:  return s.rate * scale;
+                case 2:  return Math.round(s.mean * scale * 10) / 10.0;
+                case 3:  return Math.round(s.stddev * scale * 10) / 10.0;
+                case 4:  return s.blocked;
+                case 5:  return s.listed;
+                default: return s.cooldown;
+            }
+        }
+    }
+}
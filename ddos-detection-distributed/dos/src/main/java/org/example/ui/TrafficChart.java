@@ -0,0 +1,137 @@
+package org.example.ui;
+
+import org.example.core.DetectionEngine;
+import org.example.core.SharedData;
+import org.example.util.Downsampler;
+import org.example.util.RingSeries;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Inbound/served charts backed by fixed-capacity rings. Each refresh copies
+ * only the visible window and downsamples it to at most
+ * {@link SharedData#chartMaxPoints} points, so render cost stays flat no
+ * matter how long the monitor has been up. Optionally overlays the top-K
+ * sources on the inbound chart.
+ */
+public class TrafficChart extends JPanel {
+    private static final String[] WINDOW_NAMES = {"1 min", "5 min", "15 min", "1 h", "6 h", "24 h"};
+    private static final long[]   WINDOW_MS    = {60_000, 300_000, 900_000, 3_600_000, 21_600_000, 86_400_000};
+    private static final int      OVERLAY_K    = 5;
+
+    private final RingSeries inRing  = new RingSeries(SharedData.chartCapacity);
+    private final RingSeries outRing = new RingSeries(SharedData.chartCapacity);
+    // Recently top-ranked IPs, least recently ranked first; bounded to a few K
+    private final LinkedHashMap<String, RingSeries> overlayRings = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile List<String> currentTop = List.of();
+
+    private final XYSeries            inSeries  = new XYSeries("Inbound", false, true);
+    private final XYSeries            outSeries = new XYSeries("Served",  false, true);
+    private final XYSeriesCollection  inData    = new XYSeriesCollection(inSeries);
+    private final AtomicBoolean       refreshPending = new AtomicBoolean();
+
+    private volatile long             windowMs = WINDOW_MS[1];
+    private volatile Downsampler.Mode mode     = Downsampler.Mode.LTTB;
+    private volatile boolean          overlay  = false;
+
+    public TrafficChart() {
+        setLayout(new BorderLayout(5,5));
+
+        JComboBox<String> windowBox = new JComboBox<>(WINDOW_NAMES);
+        windowBox.setSelectedIndex(1);
+        windowBox.addActionListener(e -> { windowMs = WINDOW_MS[windowBox.getSelectedIndex()]; refresh(); });
+        JComboBox<Downsampler.Mode> modeBox = new JComboBox<>(Downsampler.Mode.values());
+        modeBox.addActionListener(e -> { mode = (Downsampler.Mode) modeBox.getSelectedItem(); refresh(); });
+        JCheckBox overlayBox = new JCheckBox("Top-" + OVERLAY_K + " sources");
+        overlayBox.addActionListener(e -> { overlay = overlayBox.isSelected(); refresh(); });
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Window:"));
+        controls.add(windowBox);
+        controls.add(new JLabel("Downsampling:"));
+        controls.add(modeBox);
+        controls.add(overlayBox);
+        add(controls, BorderLayout.NORTH);
+
+        ChartPanel inChart = new ChartPanel(
+                ChartFactory.createTimeSeriesChart(
+                        "Inbound Traffic","Time","Req/s",
+                        inData,
+                        true,true,false)
+        );
+        ChartPanel outChart = new ChartPanel(
+                ChartFactory.createTimeSeriesChart(
+                        "Served Traffic","Time","Req/s",
+                        new XYSeriesCollection(outSeries),
+                        false,true,false)
+        );
+        JPanel charts = new JPanel(new GridLayout(2,1));
+        charts.add(inChart);
+        charts.add(outChart);
+        add(charts, BorderLayout.CENTER);
+    }
+
+    /** Called on the detection thread; the redraw is coalesced onto the EDT. */
+    public void onTick(DetectionEngine.Tick t) {
+        inRing .add(t.timestamp, t.perSecond(t.inbound));
+        outRing.add(t.timestamp, t.perSecond(t.served));
+
+        List<String> top = new ArrayList<>(OVERLAY_K);
+        synchronized (overlayRings) {
+            for (Map.Entry<String, Long> e : t.top) {
+                if (top.size() == OVERLAY_K) break;
+                top.add(e.getKey());
+                overlayRings.computeIfAbsent(e.getKey(), k -> new RingSeries(SharedData.chartCapacity / 24))
+                            .add(t.timestamp, t.perSecond(e.getValue()));
+            }
+            while (overlayRings.size() > OVERLAY_K * 4) {
+                overlayRings.remove(overlayRings.keySet().iterator().next());
+            }
+        }
+        currentTop = top;
+        if (refreshPending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                refreshPending.set(false);
+                refresh();
+            });
+        }
+    }
+
+    private void refresh() {
+        long from = System.currentTimeMillis() - windowMs;
+        fill(inSeries,  inRing.since(from));
+        fill(outSeries, outRing.since(from));
+
+        List<String> top = overlay ? currentTop : List.of();
+        for (int i = inData.getSeriesCount() - 1; i >= 1; i--) {
+            if (!top.contains((String) inData.getSeriesKey(i))) inData.removeSeries(i);
+        }
+        for (String ip : top) {
+            RingSeries ring;
+            synchronized (overlayRings) { ring = overlayRings.get(ip); }
+            if (ring == null) continue;
+            int idx = inData.indexOf(ip);
+            XYSeries s = idx >= 0 ? inData.getSeries(idx) : new XYSeries(ip, false, true);
+            fill(s, ring.since(from));
+            if (idx < 0) inData.addSeries(s);
+        }
+    }
+
+    private void fill(XYSeries series, RingSeries.Window w) {
+        int[] keep = Downsampler.downsample(mode, w.ts, w.values, SharedData.chartMaxPoints);
+        series.setNotify(false);
+        series.clear();
+        for (int i : keep) series.add(w.ts[i], w.values[i], false);
+        series.setNotify(true);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.util;
+
+import java.util.Arrays;
+
+/**
+ * Reduces a series to a bounded number of points for rendering, so drawing
+ * a day of 1-second samples costs the same as drawing a minute.
+ * Both methods return indices into the input, ascending, always keeping the
+ * first and last point.
+ */
+public class Downsampler {
+    public enum Mode { LTTB, MIN_MAX }
+
+    public static int[] downsample(Mode mode, long[] x, double[] y, int threshold) {
+        return mode == Mode.MIN_MAX ? minMax(y, threshold) : lttb(x, y, threshold);
+    }
+
+    /** Largest-Triangle-Three-Buckets: keeps the visually dominant point of each bucket. */
+    public static int[] lttb(long[] x, double[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < 3) return identity(n);
+
+        int[] out = new int[threshold];
+        double every = (double) (n - 2) / (threshold - 2);
+        int a = 0, k = 0;
+        out[k++] = 0;
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket is the third triangle vertex
+            int nextStart = (int) ((i + 1) * every) + 1;
+            int nextEnd   = Math.min((int) ((i + 2) * every) + 1, n);
+            double avgX = 0, avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) { avgX += x[j]; avgY += y[j]; }
+            int len = Math.max(1, nextEnd - nextStart);
+            avgX /= len; avgY /= len;
+
+            int start = (int) (i * every) + 1;
+            int end   = (int) ((i + 1) * every) + 1;
+            double maxArea = -1;
+            int pick = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((x[a] - avgX) * (y[j] - y[a]) - (x[a] - x[j]) * (avgY - y[a]));
+                if (area > maxArea) { maxArea = area; pick = j; }
+            }
+            out[k++] = pick;
+            a = pick;
+        }
+        out[k++] = n - 1;
+        return out;
+    }
+
+    /** Keeps the minimum and maximum of each bucket, so spikes are never lost. */
+    public static int[] minMax(double[] y, int threshold) {
+        int n = y.length;
+        if (threshold >= n || threshold < 4) return identity(n);
+
+        int buckets = (threshold - 2) / 2;
+        int[] out = new int[buckets * 2 + 2];
+        int k = 0;
+        out[k++] = 0;
+        double every = (double) (n - 2) / buckets;
+        for (int b = 0; b < buckets; b++) {
+            int start = (int) (b * every) + 1;
+            int end   = Math.min((int) ((b + 1) * every) + 1, n - 1);
+            if (start >= end) continue;
+            int min = start, max = start;
+            for (int j = start + 1; j < end; j++) {
+                if (y[j] < y[min]) min = j;
+                if (y[j] > y[max]) max = j;
+            }
+            out[k++] = Math.min(min, max);
+            if (min != max) out[k++] = Math.max(min, max);
+        }
+        out[k++] = n - 1;
+        return Arrays.copyOf(out, k);
+    }
+
+    private static int[] identity(int n) {
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = i;
+        return out;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.util;
+
+/**
+ * Bounded ring of log lines addressed by a global sequence number. Appending
+ * past capacity drops the oldest line; readers holding a sequence number get
+ * null once it has been overwritten instead of a shifted neighbour.
+ */
+public class EventRing {
+    private final String[] items;
+    private long nextSeq = 0;
+
+    public EventRing(int capacity) {
+        this.items = new String[capacity];
+    }
+
+    /** @return Sequence number of the appended line. */
+    public synchronized long append(String line) {
+        items[(int) (nextSeq % items.length)] = line;
+        return nextSeq++;
+    }
+
+    /** @return Sequence number of the oldest line still held. */
+    public synchronized long firstSeq() {
+        return Math.max(0, nextSeq - items.length);
+    }
+
+    /** @return Sequence number the next append will get. */
+    public synchronized long nextSeq() {
+        return nextSeq;
+    }
+
+    /** @return The line, or null if {@code seq} was overwritten or not yet written. */
+    public synchronized String get(long seq) {
+        if (seq < Math.max(0, nextSeq - items.length) || seq >= nextSeq) return null;
+        return items[(int) (seq % items.length)];
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of nanosecond latencies.
+ * Each power of two is split into 32 linear sub-buckets (~3% precision),
+ * so memory is fixed at 1888 counters regardless of how much is recorded.
+ * Values under 32 ns are exact, so sub-microsecond latencies keep their
+ * resolution. Histograms from other threads or MPI ranks can be merged in.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB      = 1 << SUB_BITS;
+    private static final int BUCKETS  = (64 - SUB_BITS) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong      total  = new AtomicLong();
+    private final AtomicLong      sum    = new AtomicLong();
+    private final AtomicLong      max    = new AtomicLong();
+
+    /** Records one value in nanoseconds. Negative values are clamped to 0. */
+    public void record(long valueNs) {
+        long v = Math.max(0, valueNs);
+        counts.incrementAndGet(indexOf(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        long cur;
+        while (v > (cur = max.get())) {
+            if (max.compareAndSet(cur, v)) break;
+        }
+    }
+
+    public long getCount() { return total.get(); }
+    public long getMax()   { return max.get();   }
+    public long getSum()   { return sum.get();   }
+
+    public double getMean() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * @param percentile 0..100
+     * @return Approximate value (ns) at the given percentile, 0 if empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(midpointOf(i), max.get());
+        }
+        return max.get();
+    }
+
+    /** @return Recorded values up to {@code valueNs}, at bucket precision (the bucket holding it counts). */
+    public long getCountAtOrBelow(long valueNs) {
+        long n = 0;
+        int last = indexOf(Math.max(0, valueNs));
+        for (int i = 0; i <= last; i++) n += counts.get(i);
+        return n;
+    }
+
+    /** Adds every value recorded in {@code other}; safe while either side is recording. */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        total.addAndGet(other.total.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /**
+     * @return Flat copy for sending between processes (e.g. as MPI.LONG):
+     *         the bucket counts followed by sum and max.
+     */
+    public long[] toLongArray() {
+        long[] out = new long[BUCKETS + 2];
+        for (int i = 0; i < BUCKETS; i++) out[i] = counts.get(i);
+        out[BUCKETS]     = sum.get();
+        out[BUCKETS + 1] = max.get();
+        return out;
+    }
+
+    /** Merges a histogram received as {@link #toLongArray()}, starting at {@code offset}. */
+    public void merge(long[] data, int offset) {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = data[offset + i];
+            if (c != 0) { counts.addAndGet(i, c); n += c; }
+        }
+        total.addAndGet(n);
+        sum.addAndGet(data[offset + BUCKETS]);
+        max.accumulateAndGet(data[offset + BUCKETS + 1], Math::max);
+    }
+
+    /** @return Length of {@link #toLongArray()}. */
+    public static int longArrayLength() {
+        return BUCKETS + 2;
+    }
+
+    /** @return "p50/p90/p99/p99.9/max" in ms, e.g. for one table cell. */
+    public String percentileSummary() {
+        return String.format("%.3f/%.3f/%.3f/%.3f/%.3f ms",
+                getValueAtPercentile(50) / 1e6, getValueAtPercentile(90) / 1e6,
+                getValueAtPercentile(99) / 1e6, getValueAtPercentile(99.9) / 1e6, getMax() / 1e6);
+    }
+
+    /**
+     * Writes the percentile distribution (value in ms, percentile, count at or
+     * below, 1/(1-percentile)) at a few points per halving of the tail, which
+     * is a few dozen lines however many values were recorded.
+     */
+    public void writePercentiles(Writer out) throws IOException {
+        long n = total.get();
+        out.write(String.format("%12s %14s %12s %14s%n", "Value(ms)", "Percentile", "TotalCount", "1/(1-Pct)"));
+        if (n == 0) return;
+        for (int halvings = 0; Math.pow(0.5, halvings) * n >= 1; halvings++) {
+            // Four points per halving: 0, 12.5, 25, 37.5, 50, 56.25, ... percent
+            for (int step = 0; step < 4; step++) {
+                double q = 1 - Math.pow(0.5, halvings) * (1 - step / 8.0);
+                out.write(String.format("%12.4f %14.9f %12d %14.2f%n",
+                        getValueAtPercentile(Math.max(q * 100, 1e-9)) / 1e6, q,
+                        (long) Math.ceil(q * n), 1 / (1 - q)));
+            }
+        }
+        out.write(String.format("%12.4f %14.9f %12d %14s%n", getMax() / 1e6, 1.0, n, "inf"));
+        out.write(String.format("#[Mean = %.4f ms, Max = %.4f ms, Total count = %d]%n",
+                getMean() / 1e6, getMax() / 1e6, n));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    static int indexOf(long v) {
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        if (msb < SUB_BITS) return (int) v;
+        int sub = (int) (v >>> (msb - SUB_BITS)) - SUB;
+        return (msb - SUB_BITS + 1) * SUB + sub;
+    }
+
+    static long lowestOf(int index) {
+        if (index < SUB) return index;
+        int group = index / SUB;
+        return (long) (SUB + index % SUB) << (group - 1);
+    }
+
+    static long midpointOf(int index) {
+        if (index < SUB) return index;
+        return lowestOf(index) + ((1L << (index / SUB - 1)) >> 1);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring for many producer threads and one consumer thread.
+ * Producers claim a slot by CAS on the tail; a per-slot sequence number says
+ * whether the slot is free to write or holds an item ready to read.
+ */
+public class MpscRing<T> {
+    private final Object[]        items;
+    private final AtomicLongArray sequence;
+    private final int             mask;
+    private final AtomicLong      tail = new AtomicLong();
+    private volatile long         head;     // written by the consumer only
+
+    /** @param capacity Rounded up to a power of two. */
+    public MpscRing(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.items    = new Object[cap];
+        this.sequence = new AtomicLongArray(cap);
+        this.mask     = cap - 1;
+        for (int i = 0; i < cap; i++) sequence.set(i, i);
+    }
+
+    /** Any thread. @return false if full. */
+    public boolean offer(T item) {
+        while (true) {
+            long t = tail.get();
+            int  i = (int) t & mask;
+            long diff = sequence.get(i) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    items[i] = item;
+                    sequence.set(i, t + 1);   // ready to read
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;                 // slot still holds an unread item
+            }
+            // diff > 0: another producer claimed t; retry with the new tail
+        }
+    }
+
+    /** Consumer thread only. @return The next item, or null if empty. */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head;
+        int  i = (int) h & mask;
+        if (sequence.get(i) != h + 1) return null;
+        T item = (T) items[i];
+        items[i] = null;
+        sequence.set(i, h + items.length);    // free for the producer one lap later
+        head = h + 1;
+        return item;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
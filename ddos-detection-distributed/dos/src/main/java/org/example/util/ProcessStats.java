@@ -0,0 +1,46 @@
+package org.example.util;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Process-level numbers for comparing run modes: time since JVM start and
+ * resident set size.
+ */
+public class ProcessStats {
+    private static final Path STATUS = Path.of("/proc/self/status");
+
+    /** @return Milliseconds since the JVM started. */
+    public static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    /** @return Resident set size in bytes, or -1 where /proc is not available. */
+    public static long rssBytes() {
+        try {
+            for (String line : Files.readAllLines(STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    String kb = line.substring(6).trim().split("\\s+")[0];
+                    return Long.parseLong(kb) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+        }
+        return -1;
+    }
+
+    public static long heapUsedBytes() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /** @return e.g. {@code "rss=84.2 MB heap=21.0 MB"}. */
+    public static String memorySummary() {
+        long rss = rssBytes();
+        return String.format("rss=%s heap=%.1f MB",
+                rss < 0 ? "n/a" : String.format("%.1f MB", rss / 1048576.0),
+                heapUsedBytes() / 1048576.0);
+    }
+}
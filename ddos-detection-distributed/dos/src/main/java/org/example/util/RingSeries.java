@@ -0,0 +1,69 @@
+package org.example.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring of (timestamp, value) points in primitive arrays.
+ * Once full, each add overwrites the oldest point, so memory never grows.
+ * Timestamps are expected to be non-decreasing.
+ */
+public class RingSeries {
+    /** Oldest-first copy of a time range. */
+    public static class Window {
+        public final long[]   ts;
+        public final double[] values;
+
+        Window(long[] ts, double[] values) {
+            this.ts     = ts;
+            this.values = values;
+        }
+
+        public int size() { return ts.length; }
+    }
+
+    private final long[]   ts;
+    private final double[] values;
+    private int head = 0, size = 0;   // head = next write slot
+
+    public RingSeries(int capacity) {
+        this.ts     = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    public synchronized void add(long timestamp, double value) {
+        ts[head]     = timestamp;
+        values[head] = value;
+        head = (head + 1) % ts.length;
+        if (size < ts.length) size++;
+    }
+
+    public synchronized int size()   { return size; }
+    public int capacity()            { return ts.length; }
+
+    /** @return Points with timestamp {@code >= from}, oldest first. */
+    public synchronized Window since(long from) {
+        int start = (head - size + ts.length) % ts.length;
+        // Binary search over logical positions 0..size-1
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ts[(start + mid) % ts.length] < from) lo = mid + 1; else hi = mid;
+        }
+        int n = size - lo;
+        long[]   outTs = new long[n];
+        double[] outV  = new double[n];
+        int first = (start + lo) % ts.length;
+        int tail  = Math.min(n, ts.length - first);
+        System.arraycopy(ts,     first, outTs, 0, tail);
+        System.arraycopy(values, first, outV,  0, tail);
+        System.arraycopy(ts,     0, outTs, tail, n - tail);
+        System.arraycopy(values, 0, outV,  tail, n - tail);
+        return new Window(outTs, outV);
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(values, 0);
+        head = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free ring for exactly one producer thread and one consumer
+ * thread. Each side caches the other's index and only re-reads it when the
+ * ring looks full (producer) or empty (consumer).
+ */
+public class SpscRing<T> {
+    private final Object[]   items;
+    private final int        mask;
+    private final AtomicLong head = new AtomicLong();   // next slot to read
+    private final AtomicLong tail = new AtomicLong();   // next slot to write
+    private long cachedHead;                            // producer's view of head
+    private long cachedTail;                            // consumer's view of tail
+
+    /** @param capacity Rounded up to a power of two. */
+    public SpscRing(int capacity) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.items = new Object[cap];
+        this.mask  = cap - 1;
+    }
+
+    /** Producer thread only. @return false if full. */
+    public boolean offer(T item) {
+        long t = tail.get();
+        if (t - cachedHead >= items.length) {
+            cachedHead = head.get();
+            if (t - cachedHead >= items.length) return false;
+        }
+        items[(int) t & mask] = item;
+        tail.lazySet(t + 1);   // publishes the slot write
+        return true;
+    }
+
+    /** Consumer thread only. @return The next item, or null if empty. */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = head.get();
+        if (h >= cachedTail) {
+            cachedTail = tail.get();
+            if (h >= cachedTail) return null;
+        }
+        int i = (int) h & mask;
+        T item = (T) items[i];
+        items[i] = null;
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
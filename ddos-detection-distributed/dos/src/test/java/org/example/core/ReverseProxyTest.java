@@ -0,0 +1,157 @@
+package org.example.core;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Forwarding through {@link ReverseProxy} to a stub backend on loopback.
+ */
+class ReverseProxyTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ReverseProxy proxy = new ReverseProxy();
+    private final AtomicReference<String>  seenTarget  = new AtomicReference<>();
+    private final AtomicReference<String>  seenBody    = new AtomicReference<>();
+    private final AtomicReference<Headers> seenHeaders = new AtomicReference<>();
+
+    private HttpServer backend;
+    private HttpServer front;
+    private String     backendUrl;
+
+    @BeforeEach
+    void start() throws IOException {
+        backend = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        backend.createContext("/", ex -> {
+            seenTarget.set(ex.getRequestURI().toString());
+            seenHeaders.set(ex.getRequestHeaders());
+            try (InputStream in = ex.getRequestBody()) {
+                seenBody.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            byte[] body = ("echo " + ex.getRequestMethod()).getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().add("X-Backend", "stub");
+            ex.sendResponseHeaders(201, body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        backend.start();
+        backendUrl = "http://127.0.0.1:" + backend.getAddress().getPort();
+
+        front = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        front.createContext("/", proxy::forward);
+        front.start();
+    }
+
+    @AfterEach
+    void stop() {
+        front.stop(0);
+        backend.stop(0);
+    }
+
+    @Test
+    void forwardsPathQueryBodyAndResponse() throws Exception {
+        proxy.setUpstreams(backendUrl + "/");
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(frontUri("/api/items?id=7&q=a%20b"))
+                        .POST(HttpRequest.BodyPublishers.ofString("payload")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, resp.statusCode());
+        assertEquals("echo POST", resp.body());
+        assertEquals("stub", resp.headers().firstValue("X-Backend").orElse(null));
+        assertEquals("/api/items?id=7&q=a%20b", seenTarget.get());
+        assertEquals("payload", seenBody.get());
+        assertEquals(0, proxy.getStats().get(backendUrl).errors.get());
+    }
+
+    @Test
+    void setsForwardingHeadersAndDropsHopByHop() throws Exception {
+        proxy.setUpstreams(backendUrl);
+        HttpResponse<String> resp = client.send(
+                HttpRequest.newBuilder(frontUri("/"))
+                        .header("X-Forwarded-For", "203.0.113.9")
+                        .header("X-Custom", "kept")
+                        .header("Proxy-Connection", "keep-alive")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(201, resp.statusCode());
+        Headers h = seenHeaders.get();
+        assertEquals("203.0.113.9, 127.0.0.1", h.getFirst("X-Forwarded-For"));
+        assertEquals("127.0.0.1:" + front.getAddress().getPort(), h.getFirst("X-Forwarded-Host"));
+        assertEquals("127.0.0.1:" + backend.getAddress().getPort(), h.getFirst("Host"));
+        assertEquals("kept", h.getFirst("X-Custom"));
+        assertNull(h.getFirst("Proxy-Connection"));
+    }
+
+    @Test
+    void keepsOnlyThePathOfAnAbsoluteFormTarget() throws Exception {
+        proxy.setUpstreams(backendUrl);
+        String status = rawRequest("GET http://evil.example/steal?x=1 HTTP/1.1\r\n"
+                + "Host: evil.example\r\nConnection: close\r\n\r\n");
+
+        assertTrue(status.startsWith("HTTP/1.1 201"), status);
+        assertEquals("/steal?x=1", seenTarget.get());
+    }
+
+    @Test
+    void unreachableUpstreamIsBadGateway() throws Exception {
+        int closedPort;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            closedPort = probe.getLocalPort();
+        }
+        String deadUrl = "http://127.0.0.1:" + closedPort;
+        proxy.setUpstreams(deadUrl);
+        HttpResponse<String> resp = client.send(HttpRequest.newBuilder(frontUri("/x")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(502, resp.statusCode());
+        assertEquals(1, proxy.getStats().get(deadUrl).errors.get());
+        assertNull(seenTarget.get());
+    }
+
+    @Test
+    void unforwardableRequestIsBadGateway() throws Exception {
+        proxy.setUpstreams(backendUrl);
+        // HttpClient refuses to send a method token it does not accept
+        String status = rawRequest("GET\u0001 /x HTTP/1.1\r\nHost: a\r\nConnection: close\r\n\r\n");
+
+        assertTrue(status.startsWith("HTTP/1.1 502"), status);
+        assertEquals(1, proxy.getStats().get(backendUrl).errors.get());
+        assertNull(seenTarget.get());
+    }
+
+    private URI frontUri(String pathAndQuery) {
+        return URI.create("http://127.0.0.1:" + front.getAddress().getPort() + pathAndQuery);
+    }
+
+    // Sends a request line HttpClient would not produce; returns the response status line
+    private String rawRequest(String request) throws IOException {
+        try (Socket s = new Socket("127.0.0.1", front.getAddress().getPort())) {
+            s.setSoTimeout(5000);
+            s.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+            String resp = new String(s.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+            int eol = resp.indexOf("\r\n");
+            return eol < 0 ? resp : resp.substring(0, eol);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.load;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A RAMP phase played against a stub server on loopback. Per-second counts
+ * swing with scheduling on a loaded machine, so the test checks the shape
+ * (every second busier than the one before) and a wide band on the total.
+ */
+class ProfileRunnerTest {
+    private static final int SECONDS = 4;
+
+    private final AtomicLongArray perSecond = new AtomicLongArray(SECONDS + 2);
+    private volatile long startNs;
+    private HttpServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", ex -> {
+            int sec = (int) ((System.nanoTime() - startNs) / 1_000_000_000L);
+            if (sec >= 0 && sec < perSecond.length()) perSecond.incrementAndGet(sec);
+            ex.sendResponseHeaders(200, -1);
+            ex.close();
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void achievedRateFollowsRamp() throws Exception {
+        Properties p = new Properties();
+        p.setProperty("phases", "ramp");
+        p.setProperty("phase.ramp.shape", "RAMP");
+        p.setProperty("phase.ramp.from", "0");
+        p.setProperty("phase.ramp.rate", "800");
+        p.setProperty("phase.ramp.duration", String.valueOf(SECONDS));
+        p.setProperty("phase.ramp.connections", "16");
+        ProfileRunner runner = new ProfileRunner(AttackProfile.of(p),
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/"));
+
+        startNs = System.nanoTime();
+        runner.run(line -> { }, 1000);
+
+        long total = perSecond.get(0);
+        for (int sec = 1; sec < SECONDS; sec++) {
+            // Targets average 100, 300, 500, 700 req/s: each second should clearly beat the last
+            assertTrue(perSecond.get(sec) > perSecond.get(sec - 1),
+                    "second " + sec + " not above second " + (sec - 1) + ": " + perSecond);
+            total += perSecond.get(sec);
+        }
+        long expected = 800L * SECONDS / 2;
+        assertTrue(total > expected / 2 && total < expected * 3 / 2,
+                "expected ~" + expected + " requests over the ramp, got " + total + ": " + perSecond);
+    }
+}